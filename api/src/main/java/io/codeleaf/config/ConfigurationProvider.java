@@ -8,6 +8,15 @@ import io.codeleaf.config.spec.SpecificationFormatException;
 import io.codeleaf.config.spec.SpecificationNotFoundException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class is used to obtain configurations.
@@ -56,6 +65,45 @@ public interface ConfigurationProvider {
 
     <T extends Configuration> T getConfiguration(Class<T> configurationTypeClass, Object context) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException;
 
+    /**
+     * Returns a future of the configuration of the specified type, loading it in the common fork join pool.
+     *
+     * @param configurationTypeClass the type class of the configuration to load
+     * @param <T>                    the type of the configuration
+     * @return the future of the configuration
+     * @throws NullPointerException if configurationTypeClass is <code>null</code>
+     * @see #getConfigurationAsync(Class, Executor)
+     */
+    default <T extends Configuration> CompletableFuture<T> getConfigurationAsync(Class<T> configurationTypeClass) {
+        return getConfigurationAsync(configurationTypeClass, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a future of the configuration of the specified type, without blocking the calling thread. The future
+     * completes exceptionally with the exception that {@link #getConfiguration(Class)} would throw. The default
+     * implementation calls <code>getConfiguration</code> on executor; caching providers complete the future
+     * immediately when the configuration is cached.
+     *
+     * @param configurationTypeClass the type class of the configuration to load
+     * @param executor               the executor to load the configuration on
+     * @param <T>                    the type of the configuration
+     * @return the future of the configuration
+     * @throws NullPointerException if configurationTypeClass or executor is <code>null</code>
+     */
+    default <T extends Configuration> CompletableFuture<T> getConfigurationAsync(Class<T> configurationTypeClass, Executor executor) {
+        Objects.requireNonNull(configurationTypeClass);
+        Objects.requireNonNull(executor);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(getConfiguration(configurationTypeClass));
+            } catch (Exception cause) {
+                future.completeExceptionally(cause);
+            }
+        });
+        return future;
+    }
+
     /**
      * Parses the specification into a configuration of the specified type.
      *
@@ -74,6 +122,69 @@ public interface ConfigurationProvider {
 
     <T extends Configuration> T parseConfiguration(Class<T> configurationTypeClass, Specification specification, Object context) throws ConfigurationNotFoundException, InvalidSpecificationException;
 
+    /**
+     * Returns the configuration types this provider has a factory for. The default implementation returns an empty
+     * set.
+     *
+     * @return the supported configuration types
+     * @see io.codeleaf.config.spi.ConfigurationFactory#getSupportedConfigurations()
+     */
+    default Set<Class<? extends Configuration>> getSupportedConfigurations() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Loads the configurations of the specified types concurrently on a pool of threads created for this preload,
+     * and shut down when it completes. Loading typically blocks on I/O, so the pool has a thread per type, up to four
+     * times the number of available processors, and doesn't occupy the common fork join pool.
+     *
+     * @param configurationTypeClasses the types of the configurations to load
+     * @return the report of the load times and failures
+     * @throws NullPointerException if configurationTypeClasses is or contains <code>null</code>
+     * @see #preload(Collection, Executor)
+     */
+    default PreloadReport preload(Collection<? extends Class<? extends Configuration>> configurationTypeClasses) {
+        return Preloader.preload(this, configurationTypeClasses);
+    }
+
+    /**
+     * Loads the configurations of the specified types concurrently on the specified executor, and waits until all
+     * are loaded. A caching provider keeps the loaded configurations, and the specifications they were created from,
+     * so that later calls to {@link #getConfiguration(Class)} don't load them again. A type that fails to load
+     * doesn't stop the other types from loading: its exception or error is included in the report.
+     * <p>
+     * Loading typically blocks on I/O, so an executor dedicated to the preload, for example one running virtual
+     * threads, loads faster than a shared pool.
+     *
+     * @param configurationTypeClasses the types of the configurations to load
+     * @param executor                 the executor to load the configurations on
+     * @return the report of the load times and failures
+     * @throws NullPointerException if configurationTypeClasses or executor is <code>null</code>, or
+     *                              configurationTypeClasses contains <code>null</code>
+     */
+    default PreloadReport preload(Collection<? extends Class<? extends Configuration>> configurationTypeClasses, Executor executor) {
+        return Preloader.preload(this, configurationTypeClasses, executor);
+    }
+
+    /**
+     * Loads the configurations of all supported types that are present concurrently, as with
+     * {@link #preload(Collection)}.
+     * Types without a specification and without a default configuration are skipped.
+     *
+     * @return the report of the load times and failures
+     * @see #getSupportedConfigurations()
+     * @see #preload(Collection, Executor)
+     */
+    default PreloadReport preload() {
+        List<Class<? extends Configuration>> configurationTypeClasses = new ArrayList<>();
+        for (Class<? extends Configuration> configurationTypeClass : getSupportedConfigurations()) {
+            if (hasConfiguration(configurationTypeClass)) {
+                configurationTypeClasses.add(configurationTypeClass);
+            }
+        }
+        return preload(configurationTypeClasses);
+    }
+
     /**
      * Holder for a singleton, to obtain the singleton, use {@link ConfigurationProvider#get()}
      */
@@ -0,0 +1,72 @@
+package io.codeleaf.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents the outcome of preloading configurations: the time it took to load each configuration type, and the
+ * exceptions or errors of the types that failed to load.
+ *
+ * @see ConfigurationProvider#preload(java.util.Collection)
+ * @since 0.10.0
+ */
+public final class PreloadReport {
+
+    private final Map<Class<? extends Configuration>, Duration> timings;
+    private final Map<Class<? extends Configuration>, Throwable> failures;
+    private final Duration elapsedTime;
+
+    private PreloadReport(Map<Class<? extends Configuration>, Duration> timings, Map<Class<? extends Configuration>, Throwable> failures, Duration elapsedTime) {
+        this.timings = timings;
+        this.failures = failures;
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Returns the time it took to load each configuration type, including the types that failed to load.
+     *
+     * @return the load time per configuration type
+     */
+    public Map<Class<? extends Configuration>, Duration> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns the exception or error of each configuration type that failed to load.
+     *
+     * @return the exception or error per failed configuration type
+     */
+    public Map<Class<? extends Configuration>, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the time it took to preload all configuration types.
+     *
+     * @return the elapsed time
+     */
+    public Duration getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Returns <code>true</code> if all configuration types were loaded.
+     *
+     * @return <code>true</code> if no configuration type failed to load, otherwise <code>false</code>
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "PreloadReport{loaded=" + (timings.size() - failures.size())
+                + ", failed=" + failures.keySet()
+                + ", elapsedTime=" + elapsedTime + "}";
+    }
+
+    static PreloadReport create(Map<Class<? extends Configuration>, Duration> timings, Map<Class<? extends Configuration>, Throwable> failures, Duration elapsedTime) {
+        return new PreloadReport(Collections.unmodifiableMap(timings), Collections.unmodifiableMap(failures), elapsedTime);
+    }
+}
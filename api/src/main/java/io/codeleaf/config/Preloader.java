@@ -0,0 +1,91 @@
+package io.codeleaf.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements the preloading of configurations for {@link ConfigurationProvider#preload(Collection)} and
+ * {@link ConfigurationProvider#preload(Collection, Executor)}.
+ *
+ * @since 0.10.0
+ */
+final class Preloader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Preloader.class);
+    private static final int MAXIMUM_THREADS = 4 * Runtime.getRuntime().availableProcessors();
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private Preloader() {
+    }
+
+    static PreloadReport preload(ConfigurationProvider provider, Collection<? extends Class<? extends Configuration>> configurationTypeClasses) {
+        Objects.requireNonNull(provider);
+        int threadCount = Math.max(1, Math.min(configurationTypeClasses.size(), MAXIMUM_THREADS));
+        String poolName = "config-preload-" + POOL_COUNT.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, poolName + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return preload(provider, configurationTypeClasses, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static PreloadReport preload(ConfigurationProvider provider, Collection<? extends Class<? extends Configuration>> configurationTypeClasses, Executor executor) {
+        Objects.requireNonNull(provider);
+        Objects.requireNonNull(executor);
+        Set<Class<? extends Configuration>> typeClasses = new LinkedHashSet<>(configurationTypeClasses);
+        Map<Class<? extends Configuration>, Duration> timings = new ConcurrentHashMap<>();
+        Map<Class<? extends Configuration>, Throwable> failures = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(typeClasses.size());
+        for (Class<? extends Configuration> typeClass : typeClasses) {
+            Objects.requireNonNull(typeClass);
+            try {
+                futures.add(CompletableFuture.runAsync(() -> load(provider, typeClass, timings, failures), executor));
+            } catch (RejectedExecutionException cause) {
+                LOGGER.warn("Failed to schedule preload of configuration: " + typeClass.getName() + ": " + cause);
+                failures.put(typeClass, cause);
+                timings.put(typeClass, Duration.ZERO);
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        Duration elapsedTime = Duration.ofNanos(System.nanoTime() - start);
+        LOGGER.debug("Preloaded {} configurations in {}", typeClasses.size(), elapsedTime);
+        Map<Class<? extends Configuration>, Duration> orderedTimings = new LinkedHashMap<>();
+        Map<Class<? extends Configuration>, Throwable> orderedFailures = new LinkedHashMap<>();
+        for (Class<? extends Configuration> typeClass : typeClasses) {
+            orderedTimings.put(typeClass, timings.get(typeClass));
+            if (failures.containsKey(typeClass)) {
+                orderedFailures.put(typeClass, failures.get(typeClass));
+            }
+        }
+        return PreloadReport.create(orderedTimings, orderedFailures, elapsedTime);
+    }
+
+    private static void load(ConfigurationProvider provider, Class<? extends Configuration> typeClass, Map<Class<? extends Configuration>, Duration> timings, Map<Class<? extends Configuration>, Throwable> failures) {
+        long loadStart = System.nanoTime();
+        try {
+            provider.getConfiguration(typeClass);
+        } catch (Throwable cause) {
+            LOGGER.warn("Failed to preload configuration: " + typeClass.getName() + ": " + cause);
+            failures.put(typeClass, cause);
+        } finally {
+            timings.put(typeClass, Duration.ofNanos(System.nanoTime() - loadStart));
+        }
+    }
+}
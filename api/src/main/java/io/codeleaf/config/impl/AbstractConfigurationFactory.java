@@ -6,7 +6,9 @@ import io.codeleaf.config.spec.InvalidSpecificationException;
 import io.codeleaf.config.spec.Specification;
 import io.codeleaf.config.spi.ConfigurationFactory;
 
+import java.util.Collections;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * This class represents a configuration factory that creates only a single type.
@@ -85,6 +87,14 @@ public abstract class AbstractConfigurationFactory<T extends Configuration> impl
         return defaultConfiguration;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Class<? extends Configuration>> getSupportedConfigurations() {
+        return Collections.singleton(configurationTypeClass);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,255 @@
+package io.codeleaf.config.impl;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Represents the policy of a {@link LoadingCache}: how many entries it may keep, which entries are evicted first,
+ * and when entries expire.
+ * <p>
+ * A policy is immutable; the <code>with</code> methods return a new policy. Entries are bounded by count using
+ * {@link #lru(long)} or {@link #lfu(long)}, by total weight using {@link #withMaximumWeight(long)}, or both. The
+ * weight of an entry is determined by the cache, for example the number of settings of a specification.
+ * <p>
+ * With {@link #withRefreshAfterWrite(Duration, Executor)} entries are reloaded in the background once they are
+ * older than the refresh duration, while readers keep receiving the previous value.
+ *
+ * @see LoadingCache
+ * @since 0.10.0
+ */
+public final class CachePolicy {
+
+    /**
+     * Determines which entry is evicted first when a bounded cache is full.
+     */
+    public enum Eviction {
+
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+
+        /**
+         * Evicts the least frequently used entry, where older accesses count less than recent ones.
+         */
+        LFU
+
+    }
+
+    private static final CachePolicy UNLIMITED = new CachePolicy(Eviction.LRU, Long.MAX_VALUE, Long.MAX_VALUE, null, null, null, null);
+
+    private final Eviction eviction;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final Duration expireAfterAccess;
+    private final Duration existenceTtl;
+    private final Duration refreshAfterWrite;
+    private final Executor refreshExecutor;
+
+    private CachePolicy(Eviction eviction, long maximumSize, long maximumWeight, Duration expireAfterAccess, Duration existenceTtl, Duration refreshAfterWrite, Executor refreshExecutor) {
+        this.eviction = eviction;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterAccess = expireAfterAccess;
+        this.existenceTtl = existenceTtl;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Returns the eviction order of this policy.
+     *
+     * @return the eviction order
+     */
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * Returns the maximum number of entries, <code>Long.MAX_VALUE</code> if unbounded.
+     *
+     * @return the maximum number of entries
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the maximum total weight of the entries, <code>Long.MAX_VALUE</code> if unbounded.
+     *
+     * @return the maximum total weight
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the duration after the last access at which an entry expires, or <code>null</code> if entries don't
+     * expire.
+     *
+     * @return the duration after the last access at which an entry expires, or <code>null</code>
+     */
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    /**
+     * Returns how long the answers to existence checks, and the absence of entries that failed to load because they
+     * don't exist, are remembered, or <code>null</code> if they are not remembered.
+     *
+     * @return the time to live of existence answers, or <code>null</code>
+     */
+    public Duration getExistenceTtl() {
+        return existenceTtl;
+    }
+
+    /**
+     * Returns the age at which an entry is reloaded in the background, or <code>null</code> if entries are not
+     * refreshed.
+     *
+     * @return the age at which an entry is refreshed, or <code>null</code>
+     */
+    public Duration getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    /**
+     * Returns the executor that runs the background reloads, or <code>null</code> if entries are not refreshed.
+     *
+     * @return the executor of the refreshes, or <code>null</code>
+     */
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    /**
+     * Returns <code>true</code> if this policy bounds the number or the weight of the entries.
+     *
+     * @return <code>true</code> if this policy bounds the cache, otherwise <code>false</code>
+     */
+    public boolean isBounded() {
+        return maximumSize != Long.MAX_VALUE || maximumWeight != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a policy like this one, but bounded by the specified maximum total weight.
+     *
+     * @param maximumWeight the maximum total weight
+     * @return the new policy
+     * @throws IllegalArgumentException if maximumWeight is negative
+     */
+    public CachePolicy withMaximumWeight(long maximumWeight) {
+        requireNonNegative(maximumWeight);
+        return new CachePolicy(eviction, maximumSize, maximumWeight, expireAfterAccess, existenceTtl, refreshAfterWrite, refreshExecutor);
+    }
+
+    /**
+     * Returns a policy like this one, but with entries expiring when they have not been accessed for the specified
+     * duration.
+     *
+     * @param expireAfterAccess the duration after the last access at which an entry expires
+     * @return the new policy
+     * @throws IllegalArgumentException if expireAfterAccess is zero or negative
+     * @throws NullPointerException     if expireAfterAccess is <code>null</code>
+     */
+    public CachePolicy withExpireAfterAccess(Duration expireAfterAccess) {
+        requirePositive(expireAfterAccess);
+        return new CachePolicy(eviction, maximumSize, maximumWeight, expireAfterAccess, existenceTtl, refreshAfterWrite, refreshExecutor);
+    }
+
+    /**
+     * Returns a policy like this one, but remembering the answers to existence checks for the specified duration.
+     * Both present and absent answers are remembered, and a load that fails because the entry doesn't exist is
+     * remembered as absent. This saves the provider lookups when the same names are probed repeatedly, at the cost
+     * of noticing new or removed entries only after the duration has passed, or after an explicit invalidation.
+     *
+     * @param existenceTtl the time to live of existence answers
+     * @return the new policy
+     * @throws IllegalArgumentException if existenceTtl is zero or negative
+     * @throws NullPointerException     if existenceTtl is <code>null</code>
+     */
+    public CachePolicy withExistenceTtl(Duration existenceTtl) {
+        requirePositive(existenceTtl);
+        return new CachePolicy(eviction, maximumSize, maximumWeight, expireAfterAccess, existenceTtl, refreshAfterWrite, refreshExecutor);
+    }
+
+    /**
+     * Returns a policy like this one, but refreshing entries in the common fork join pool.
+     *
+     * @param refreshAfterWrite the age at which an entry is refreshed
+     * @return the new policy
+     * @throws IllegalArgumentException if refreshAfterWrite is zero or negative
+     * @throws NullPointerException     if refreshAfterWrite is <code>null</code>
+     * @see #withRefreshAfterWrite(Duration, Executor)
+     */
+    public CachePolicy withRefreshAfterWrite(Duration refreshAfterWrite) {
+        return withRefreshAfterWrite(refreshAfterWrite, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a policy like this one, but reloading an entry on the specified executor once it is older than
+     * refreshAfterWrite. The first read of such an entry starts the reload, and all reads keep receiving the previous
+     * value until the reload completes. When the reload fails, the previous value is kept and reloaded again after
+     * refreshAfterWrite. Reloads typically block on I/O, so an executor dedicated to them, for example one running
+     * virtual threads, is preferred over a shared pool.
+     *
+     * @param refreshAfterWrite the age at which an entry is refreshed
+     * @param refreshExecutor   the executor to run the reloads
+     * @return the new policy
+     * @throws IllegalArgumentException if refreshAfterWrite is zero or negative
+     * @throws NullPointerException     if refreshAfterWrite or refreshExecutor is <code>null</code>
+     */
+    public CachePolicy withRefreshAfterWrite(Duration refreshAfterWrite, Executor refreshExecutor) {
+        requirePositive(refreshAfterWrite);
+        Objects.requireNonNull(refreshExecutor);
+        return new CachePolicy(eviction, maximumSize, maximumWeight, expireAfterAccess, existenceTtl, refreshAfterWrite, refreshExecutor);
+    }
+
+    private static void requirePositive(Duration duration) {
+        Objects.requireNonNull(duration);
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+    }
+
+    private static void requireNonNegative(long maximum) {
+        if (maximum < 0) {
+            throw new IllegalArgumentException("Maximum must not be negative: " + maximum);
+        }
+    }
+
+    /**
+     * Returns the policy that keeps all entries.
+     *
+     * @return the unlimited policy
+     */
+    public static CachePolicy unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a policy that keeps at most maximumSize entries, evicting the least recently used entry first.
+     *
+     * @param maximumSize the maximum number of entries
+     * @return the new policy
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public static CachePolicy lru(long maximumSize) {
+        requireNonNegative(maximumSize);
+        return new CachePolicy(Eviction.LRU, maximumSize, Long.MAX_VALUE, null, null, null, null);
+    }
+
+    /**
+     * Returns a policy that keeps at most maximumSize entries, evicting the least frequently used entry first.
+     *
+     * @param maximumSize the maximum number of entries
+     * @return the new policy
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public static CachePolicy lfu(long maximumSize) {
+        requireNonNegative(maximumSize);
+        return new CachePolicy(Eviction.LFU, maximumSize, Long.MAX_VALUE, null, null, null, null);
+    }
+}
@@ -0,0 +1,299 @@
+package io.codeleaf.config.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Represents a snapshot of the statistics of a {@link LoadingCache}.
+ * <p>
+ * The load times are counted in a histogram of 6 buckets: below 1 ms, below 10 ms, below 100 ms, below 1 s, below
+ * 10 s, and 10 s or more.
+ *
+ * @see LoadingCache#getStats()
+ * @since 0.10.0
+ */
+public final class CacheStats implements CacheStatsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheStats.class);
+
+    private static final long[] BUCKET_BOUNDS = {
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(10)
+    };
+
+    /**
+     * The number of buckets of the load time histogram.
+     */
+    public static final int BUCKET_COUNT = BUCKET_BOUNDS.length + 1;
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, new long[BUCKET_COUNT], 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long[] loadTimeHistogram;
+    private final long evictionCount;
+    private final long size;
+
+    private CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime, long[] loadTimeHistogram, long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.loadTimeHistogram = loadTimeHistogram;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getAverageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * Returns the number of loads per load time bucket: below 1 ms, below 10 ms, below 100 ms, below 1 s, below 10 s,
+     * and 10 s or more.
+     *
+     * @return a copy of the load time histogram
+     */
+    @Override
+    public long[] getLoadTimeHistogram() {
+        return loadTimeHistogram.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the sum of these statistics and the specified statistics.
+     *
+     * @param other the statistics to add
+     * @return the summed statistics
+     */
+    public CacheStats plus(CacheStats other) {
+        long[] histogram = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram[i] = loadTimeHistogram[i] + other.loadTimeHistogram[i];
+        }
+        return new CacheStats(
+                hitCount + other.hitCount,
+                missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount,
+                loadFailureCount + other.loadFailureCount,
+                totalLoadTime + other.totalLoadTime,
+                histogram,
+                evictionCount + other.evictionCount,
+                size + other.size);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount
+                + ", missCount=" + missCount
+                + ", loadSuccessCount=" + loadSuccessCount
+                + ", loadFailureCount=" + loadFailureCount
+                + ", totalLoadTime=" + totalLoadTime
+                + ", loadTimeHistogram=" + Arrays.toString(loadTimeHistogram)
+                + ", evictionCount=" + evictionCount
+                + ", size=" + size + "}";
+    }
+
+    static int bucketOf(long loadTime) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && loadTime >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    static CacheStats create(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime, long[] loadTimeHistogram, long evictionCount, long size) {
+        return new CacheStats(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTime, loadTimeHistogram, evictionCount, size);
+    }
+
+    /**
+     * Returns the statistics of a cache without activity.
+     *
+     * @return the empty statistics
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Registers an MXBean with the platform MBean server that reports the statistics returned by stats. Failing to
+     * register is logged as a warning, and doesn't affect the cache.
+     *
+     * @param objectName the object name of the MXBean
+     * @param stats      the supplier of the current statistics
+     * @return the object name, or <code>null</code> if the MXBean couldn't be registered
+     * @throws NullPointerException if objectName or stats is <code>null</code>
+     */
+    public static ObjectName registerMBean(String objectName, Supplier<CacheStats> stats) {
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(stats);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            return server.registerMBean(new LiveStats(stats), new ObjectName(objectName)).getObjectName();
+        } catch (JMException | SecurityException cause) {
+            LOGGER.warn("Failed to register MBean: " + objectName + ": " + cause);
+            return null;
+        }
+    }
+
+    /**
+     * Unregisters an MXBean that was registered with {@link #registerMBean(String, Supplier)}. Failing to unregister
+     * is logged as a warning.
+     *
+     * @param objectName the object name of the MXBean, may be <code>null</code>
+     */
+    public static void unregisterMBean(ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException | SecurityException cause) {
+            LOGGER.warn("Failed to unregister MBean: " + objectName + ": " + cause);
+        }
+    }
+
+    private static final class LiveStats implements CacheStatsMXBean {
+
+        private final Supplier<CacheStats> stats;
+
+        private LiveStats(Supplier<CacheStats> stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public long getHitCount() {
+            return stats.get().getHitCount();
+        }
+
+        @Override
+        public long getMissCount() {
+            return stats.get().getMissCount();
+        }
+
+        @Override
+        public double getHitRate() {
+            return stats.get().getHitRate();
+        }
+
+        @Override
+        public long getLoadSuccessCount() {
+            return stats.get().getLoadSuccessCount();
+        }
+
+        @Override
+        public long getLoadFailureCount() {
+            return stats.get().getLoadFailureCount();
+        }
+
+        @Override
+        public long getTotalLoadTime() {
+            return stats.get().getTotalLoadTime();
+        }
+
+        @Override
+        public double getAverageLoadPenalty() {
+            return stats.get().getAverageLoadPenalty();
+        }
+
+        @Override
+        public long[] getLoadTimeHistogram() {
+            return stats.get().getLoadTimeHistogram();
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return stats.get().getEvictionCount();
+        }
+
+        @Override
+        public long getSize() {
+            return stats.get().getSize();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.codeleaf.config.impl;
+
+/**
+ * Represents the management interface of the statistics of a cache.
+ *
+ * @see CacheStats#registerMBean(String, java.util.function.Supplier)
+ * @since 0.10.0
+ */
+public interface CacheStatsMXBean {
+
+    /**
+     * Returns the number of lookups that found a cached or loading value.
+     *
+     * @return the number of hits
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups that had to load the value.
+     *
+     * @return the number of misses
+     */
+    long getMissCount();
+
+    /**
+     * Returns the ratio of hits to lookups, or 1 if there were no lookups.
+     *
+     * @return the hit rate
+     */
+    double getHitRate();
+
+    /**
+     * Returns the number of loads, including refreshes, that succeeded.
+     *
+     * @return the number of successful loads
+     */
+    long getLoadSuccessCount();
+
+    /**
+     * Returns the number of loads, including refreshes, that failed.
+     *
+     * @return the number of failed loads
+     */
+    long getLoadFailureCount();
+
+    /**
+     * Returns the total time spent loading, in nanoseconds.
+     *
+     * @return the total load time in nanoseconds
+     */
+    long getTotalLoadTime();
+
+    /**
+     * Returns the average time of a load, in nanoseconds, or 0 if there were no loads.
+     *
+     * @return the average load time in nanoseconds
+     */
+    double getAverageLoadPenalty();
+
+    /**
+     * Returns the number of loads per load time bucket.
+     *
+     * @return the load time histogram
+     * @see CacheStats#getLoadTimeHistogram()
+     */
+    long[] getLoadTimeHistogram();
+
+    /**
+     * Returns the number of entries that were evicted or expired.
+     *
+     * @return the number of evictions
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries
+     */
+    long getSize();
+
+}
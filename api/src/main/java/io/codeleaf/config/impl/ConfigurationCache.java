@@ -1,7 +1,5 @@
 package io.codeleaf.config.impl;
 
-import io.codeleaf.common.behaviors.Cache;
-import io.codeleaf.common.behaviors.impl.UnlimitedCache;
 import io.codeleaf.config.Configuration;
 import io.codeleaf.config.ConfigurationNotFoundException;
 import io.codeleaf.config.ConfigurationProvider;
@@ -12,11 +10,48 @@ import io.codeleaf.config.spec.SpecificationNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * Provides a Cache implementation for the <code>ConfigurationProvider</code>.
+ * <p>
+ * Concurrent requests for the same configuration type are loaded only once: the first caller loads the
+ * configuration, and the other callers wait for it. A failed load is thrown to all these callers, and is not cached.
+ * <p>
+ * Configurations requested with a context, as created by a {@link ContextAwareConfigurationFactory}, are cached per
+ * type and context, where contexts are compared by identity. A <code>null</code> context shares the configuration
+ * requested without a context. The contexts are referenced weakly: when a context is garbage collected, its
+ * configurations are removed on a later request with a context. A configuration that references its own context
+ * keeps that context reachable until it is evicted. At most 64 contexts per type are cached by default, evicting the
+ * least recently used first. A request probes the cache with a plain key, and only creates the weak reference to its
+ * context when the configuration must be loaded.
+ * <p>
+ * When the policy neither bounds nor expires nor refreshes the cache, as with {@link #create(ConfigurationProvider)},
+ * a cached configuration requested without a context is also kept in a per-class slot backed by a
+ * {@link ClassValue}. A hit then costs a single read of that slot, without a map lookup or any counting, so these
+ * hits are not included in the hit count of the statistics.
+ * <p>
+ * The cache references the configuration classes strongly, both in its maps and through the slots, so the class
+ * loader of a cached configuration type can't be unloaded until that type is invalidated or the cache is discarded.
+ * <p>
+ * When the policy has an existence time to live, the answers of the provider to
+ * {@link #hasConfiguration(Class)} are remembered, and a configuration type that failed to load because it wasn't
+ * found is remembered as absent: a repeated probe then costs a single map lookup. Use {@link #invalidate(Class)} or
+ * {@link #invalidateAll()} to forget cached configurations and remembered answers.
+ * <p>
+ * The statistics of the cache are available through {@link #getStats()}, and through JMX after
+ * {@link #registerMBean(String)}.
  *
  * @author tvburger@gmail.com
  * @since 0.1.0
@@ -25,12 +60,28 @@ public final class ConfigurationCache implements ConfigurationProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationCache.class);
 
-    private final Cache<Class<?>, Configuration> cache;
+    /**
+     * The default maximum number of contexts per configuration type.
+     */
+    public static final int DEFAULT_MAXIMUM_CONTEXTS = 64;
+
+    private final LoadingCache<Class<?>, Configuration> cache;
+    private final ExistenceCache<Class<?>> existence;
     private final ConfigurationProvider provider;
+    private final CachePolicy contextPolicy;
+    private final ConcurrentMap<Class<?>, LoadingCache<Object, Configuration>> contextCaches = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collectedContexts = new ReferenceQueue<>();
+    private final Function<Object, Object> contextKeyFactory = key -> ((LookupKey) key).createContextKey(collectedContexts);
+    private final boolean useSlots;
+    private volatile ClassValue<Slot> slots = new SlotValue();
+    private volatile ObjectName mbeanName;
 
-    private ConfigurationCache(Cache<Class<?>, Configuration> cache, ConfigurationProvider provider) {
+    private ConfigurationCache(LoadingCache<Class<?>, Configuration> cache, ExistenceCache<Class<?>> existence, ConfigurationProvider provider, CachePolicy contextPolicy, boolean useSlots) {
         this.cache = cache;
+        this.existence = existence;
         this.provider = provider;
+        this.contextPolicy = contextPolicy;
+        this.useSlots = useSlots;
     }
 
     /**
@@ -38,7 +89,9 @@ public final class ConfigurationCache implements ConfigurationProvider {
      */
     @Override
     public <T extends Configuration> boolean hasConfiguration(Class<T> configurationTypeClass) {
-        return cache.has(configurationTypeClass) || provider.hasConfiguration(configurationTypeClass);
+        return (useSlots && slots.get(configurationTypeClass).configuration != null)
+                || cache.has(configurationTypeClass)
+                || existence.exists(configurationTypeClass, typeClass -> provider.hasConfiguration(configurationTypeClass));
     }
 
     /**
@@ -46,7 +99,18 @@ public final class ConfigurationCache implements ConfigurationProvider {
      */
     @Override
     public <T extends Configuration> T getConfiguration(Class<T> configurationTypeClass) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException {
-        return doGetConfiguration(configurationTypeClass, false, null);
+        if (useSlots) {
+            Configuration configuration = slots.get(configurationTypeClass).configuration;
+            if (configuration != null) {
+                return configurationTypeClass.cast(configuration);
+            }
+        }
+        Objects.requireNonNull(configurationTypeClass);
+        T configuration = doGetConfiguration(configurationTypeClass, cache, configurationTypeClass, Function.identity(), null);
+        if (useSlots) {
+            fillSlot(configurationTypeClass, configuration);
+        }
+        return configuration;
     }
 
     /**
@@ -54,27 +118,102 @@ public final class ConfigurationCache implements ConfigurationProvider {
      */
     @Override
     public <T extends Configuration> T getConfiguration(Class<T> configurationTypeClass, Object context) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException {
-        return doGetConfiguration(configurationTypeClass, true, context);
+        Objects.requireNonNull(configurationTypeClass);
+        if (context == null) {
+            return getConfiguration(configurationTypeClass);
+        }
+        expungeCollectedContexts();
+        LoadingCache<Object, Configuration> contextCache = contextCaches.computeIfAbsent(configurationTypeClass, typeClass -> LoadingCache.create(contextPolicy));
+        return doGetConfiguration(configurationTypeClass, contextCache, new LookupKey(configurationTypeClass, context), contextKeyFactory, context);
     }
 
-    private <T extends Configuration> T doGetConfiguration(Class<T> configurationTypeClass, boolean withContext, Object context) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException {
-        Objects.requireNonNull(configurationTypeClass);
+    private <K, T extends Configuration> T doGetConfiguration(Class<T> configurationTypeClass, LoadingCache<K, Configuration> loadingCache, K key, Function<? super K, ? extends K> keyFactory, Object context) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException {
+        if (existence.isKnownAbsent(configurationTypeClass)) {
+            throw new ConfigurationNotFoundException(configurationTypeClass);
+        }
         Configuration configuration;
-        if (!cache.has(configurationTypeClass)) {
-            LOGGER.debug("Cache miss for: " + configurationTypeClass);
-            if (withContext) {
-                configuration = provider.getConfiguration(configurationTypeClass, context);
-            } else {
-                configuration = provider.getConfiguration(configurationTypeClass);
-            }
-            cache.put(configurationTypeClass, configuration);
-        } else {
-            LOGGER.debug("Cache hit for: " + configurationTypeClass);
-            configuration = cache.get(configurationTypeClass);
+        try {
+            configuration = loadingCache.get(key, keyFactory, cacheKey -> {
+                LOGGER.debug("Cache miss for: {}", configurationTypeClass);
+                T loaded;
+                try {
+                    loaded = context != null
+                            ? provider.getConfiguration(configurationTypeClass, context)
+                            : provider.getConfiguration(configurationTypeClass);
+                } catch (ConfigurationNotFoundException cause) {
+                    existence.markAbsent(configurationTypeClass);
+                    throw cause;
+                }
+                existence.markPresent(configurationTypeClass);
+                return loaded;
+            });
+        } catch (ConfigurationNotFoundException | SpecificationNotFoundException | IOException | SpecificationFormatException | InvalidSpecificationException | RuntimeException cause) {
+            throw cause;
+        } catch (Exception cause) {
+            throw new IllegalStateException("Unexpected exception: " + cause, cause);
         }
         return configurationTypeClass.cast(configuration);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A cached configuration is returned as a completed future without switching threads. Otherwise the
+     * configuration is loaded with {@link ConfigurationProvider#getConfigurationAsync(Class, Executor)} of the
+     * provider, and concurrent requests for the same type share that load.
+     */
+    @Override
+    public <T extends Configuration> CompletableFuture<T> getConfigurationAsync(Class<T> configurationTypeClass, Executor executor) {
+        Objects.requireNonNull(configurationTypeClass);
+        Objects.requireNonNull(executor);
+        if (useSlots) {
+            Configuration configuration = slots.get(configurationTypeClass).configuration;
+            if (configuration != null) {
+                return CompletableFuture.completedFuture(configurationTypeClass.cast(configuration));
+            }
+        }
+        if (existence.isKnownAbsent(configurationTypeClass)) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new ConfigurationNotFoundException(configurationTypeClass));
+            return future;
+        }
+        return cache.getAsync(configurationTypeClass, typeClass -> {
+            LOGGER.debug("Cache miss for: {}", configurationTypeClass);
+            return provider.getConfigurationAsync(configurationTypeClass, executor).whenComplete((configuration, cause) -> {
+                if (cause == null) {
+                    existence.markPresent(configurationTypeClass);
+                } else if (cause instanceof ConfigurationNotFoundException || cause.getCause() instanceof ConfigurationNotFoundException) {
+                    existence.markAbsent(configurationTypeClass);
+                }
+            });
+        }).thenApply(configuration -> {
+            T typed = configurationTypeClass.cast(configuration);
+            if (useSlots) {
+                fillSlot(configurationTypeClass, typed);
+            }
+            return typed;
+        });
+    }
+
+    private void fillSlot(Class<?> configurationTypeClass, Configuration configuration) {
+        Slot slot = slots.get(configurationTypeClass);
+        slot.configuration = configuration;
+        if (cache.getIfPresent(configurationTypeClass) != configuration) {
+            // invalidated, and possibly loaded again, while loading
+            slot.configuration = null;
+        }
+    }
+
+    private void expungeCollectedContexts() {
+        for (Reference<?> reference = collectedContexts.poll(); reference != null; reference = collectedContexts.poll()) {
+            ContextKey key = (ContextKey) reference;
+            LoadingCache<Object, Configuration> contextCache = contextCaches.get(key.configurationTypeClass);
+            if (contextCache != null) {
+                contextCache.invalidate(key);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -92,14 +231,195 @@ public final class ConfigurationCache implements ConfigurationProvider {
     }
 
     /**
-     * Creates a new instance using a <code>UnlimitedCache</code> and loads cache misses from the specified provider.
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Class<? extends Configuration>> getSupportedConfigurations() {
+        return provider.getSupportedConfigurations();
+    }
+
+    /**
+     * Removes the cached configurations of the specified type, for all contexts, and forgets whether it exists.
+     *
+     * @param configurationTypeClass the configuration type
+     */
+    public void invalidate(Class<? extends Configuration> configurationTypeClass) {
+        cache.invalidate(configurationTypeClass);
+        slots.remove(configurationTypeClass);
+        contextCaches.remove(configurationTypeClass);
+        existence.invalidate(configurationTypeClass);
+    }
+
+    /**
+     * Removes all cached configurations, and forgets whether they exist.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        slots = new SlotValue();
+        contextCaches.clear();
+        existence.invalidateAll();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache. Configurations cached per context are included.
+     *
+     * @return the statistics
+     * @see CacheStats
+     */
+    public CacheStats getStats() {
+        CacheStats stats = cache.getStats();
+        for (LoadingCache<Object, Configuration> contextCache : contextCaches.values()) {
+            stats = stats.plus(contextCache.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Registers an MXBean reporting the statistics of this cache with the platform MBean server, under the object
+     * name <code>io.codeleaf.config:type=ConfigurationCache,name=</code><i>name</i>. Failing to register is logged as a warning.
+     *
+     * @param name the name of this cache
+     * @return <code>true</code> if the MXBean is registered, otherwise <code>false</code>
+     * @throws NullPointerException if name is <code>null</code>
+     */
+    public synchronized boolean registerMBean(String name) {
+        Objects.requireNonNull(name);
+        unregisterMBean();
+        mbeanName = CacheStats.registerMBean("io.codeleaf.config:type=ConfigurationCache,name=" + ObjectName.quote(name), this::getStats);
+        return mbeanName != null;
+    }
+
+    /**
+     * Unregisters the MXBean registered with {@link #registerMBean(String)}, if any.
+     */
+    public synchronized void unregisterMBean() {
+        CacheStats.unregisterMBean(mbeanName);
+        mbeanName = null;
+    }
+
+    /**
+     * Creates a new instance using a <code>LoadingCache</code> and loads cache misses from the specified provider.
      *
      * @param provider the configuration provider to load cache misses
      * @return the new instance
-     * @see UnlimitedCache
+     * @see LoadingCache
      */
     public static ConfigurationCache create(ConfigurationProvider provider) {
+        return create(provider, CachePolicy.unlimited());
+    }
+
+    /**
+     * Creates a new instance using a <code>LoadingCache</code> with the specified policy, and loads cache misses from
+     * the specified provider. Each configuration has a weight of 1. Evicted configurations are loaded again from the
+     * provider on their next access. The existence answers of the provider are remembered for the existence time to
+     * live of the policy.
+     *
+     * @param provider the configuration provider to load cache misses
+     * @param policy   the policy of the cache
+     * @return the new instance
+     * @throws NullPointerException if provider or policy is <code>null</code>
+     * @see CachePolicy
+     */
+    public static ConfigurationCache create(ConfigurationProvider provider, CachePolicy policy) {
+        return create(provider, policy, DEFAULT_MAXIMUM_CONTEXTS);
+    }
+
+    /**
+     * Creates a new instance like {@link #create(ConfigurationProvider, CachePolicy)}, caching at most
+     * maximumContexts contexts per configuration type. The configurations per context expire like the configurations
+     * of the policy.
+     *
+     * @param provider        the configuration provider to load cache misses
+     * @param policy          the policy of the cache
+     * @param maximumContexts the maximum number of contexts per configuration type
+     * @return the new instance
+     * @throws IllegalArgumentException if maximumContexts is negative
+     * @throws NullPointerException     if provider or policy is <code>null</code>
+     */
+    public static ConfigurationCache create(ConfigurationProvider provider, CachePolicy policy, int maximumContexts) {
         Objects.requireNonNull(provider);
-        return new ConfigurationCache(new UnlimitedCache<>(), provider);
+        CachePolicy contextPolicy = CachePolicy.lru(maximumContexts);
+        if (policy.getExpireAfterAccess() != null) {
+            contextPolicy = contextPolicy.withExpireAfterAccess(policy.getExpireAfterAccess());
+        }
+        boolean useSlots = !policy.isBounded() && policy.getExpireAfterAccess() == null && policy.getRefreshAfterWrite() == null;
+        return new ConfigurationCache(LoadingCache.create(policy), ExistenceCache.create(policy), provider, contextPolicy, useSlots);
+    }
+
+    private static final class SlotValue extends ClassValue<Slot> {
+
+        @Override
+        protected Slot computeValue(Class<?> type) {
+            return new Slot();
+        }
+    }
+
+    private static final class Slot {
+
+        private volatile Configuration configuration;
+
+    }
+
+    private static final class ContextKey extends WeakReference<Object> {
+
+        private final Class<?> configurationTypeClass;
+        private final int hash;
+
+        private ContextKey(Class<?> configurationTypeClass, Object context, ReferenceQueue<Object> queue) {
+            super(context, queue);
+            this.configurationTypeClass = configurationTypeClass;
+            this.hash = System.identityHashCode(context);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            Object context = get();
+            if (other instanceof LookupKey) {
+                return context != null && context == ((LookupKey) other).context;
+            }
+            if (!(other instanceof ContextKey)) {
+                return false;
+            }
+            return context != null && context == ((ContextKey) other).get();
+        }
+    }
+
+    private static final class LookupKey {
+
+        private final Class<?> configurationTypeClass;
+        private final Object context;
+
+        private LookupKey(Class<?> configurationTypeClass, Object context) {
+            this.configurationTypeClass = configurationTypeClass;
+            this.context = context;
+        }
+
+        private ContextKey createContextKey(ReferenceQueue<Object> queue) {
+            return new ContextKey(configurationTypeClass, context, queue);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(context);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            if (other instanceof ContextKey) {
+                return context == ((ContextKey) other).get();
+            }
+            return other instanceof LookupKey && context == ((LookupKey) other).context;
+        }
     }
 }
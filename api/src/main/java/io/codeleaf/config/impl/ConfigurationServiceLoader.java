@@ -9,11 +9,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Objects;
-import java.util.ServiceLoader;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 /**
  * Implements a configuration provider using the java service loader mechanism.
+ * <p>
+ * The factories are loaded once, the first time they are needed, into an immutable registry. The registry resolves
+ * the factory of a configuration type once and remembers the answer, also when no factory supports the type. Reads
+ * of the registry don't lock. Use {@link #reload()} when factories have been added to the class path.
  *
  * @author tvburger@gmail.com
  * @since 0.1.0
@@ -24,25 +32,81 @@ public final class ConfigurationServiceLoader implements ConfigurationProvider {
 
     private final ServiceLoader<ConfigurationFactory> serviceLoader;
     private final SpecificationProvider specificationProvider;
+    private volatile Registry registry;
 
     private ConfigurationServiceLoader(ServiceLoader<ConfigurationFactory> serviceLoader, SpecificationProvider specificationProvider) {
         this.serviceLoader = serviceLoader;
         this.specificationProvider = specificationProvider;
     }
 
+    /**
+     * Returns the factories of the current registry, in the order of the service loader.
+     *
+     * @return the factories
+     */
+    public List<ConfigurationFactory> getFactories() {
+        return getRegistry().factories;
+    }
+
     /**
      * {@inheritDoc}
+     * <p>
+     * Returns the union of the configuration types of the factories of the current registry.
      */
     @Override
-    public <T extends Configuration> boolean hasConfiguration(Class<T> configurationTypeClass) {
+    public Set<Class<? extends Configuration>> getSupportedConfigurations() {
+        Set<Class<? extends Configuration>> configurationTypeClasses = new LinkedHashSet<>();
+        for (ConfigurationFactory factory : getRegistry().factories) {
+            configurationTypeClasses.addAll(factory.getSupportedConfigurations());
+        }
+        return Collections.unmodifiableSet(configurationTypeClasses);
+    }
+
+    /**
+     * Reloads the factories from the service loader into a new registry. Lookups that are in progress complete with
+     * the previous registry. Configurations that are already cached, for example by a {@link ConfigurationCache},
+     * are not affected.
+     *
+     * @see ServiceLoader#reload()
+     */
+    public void reload() {
         synchronized (serviceLoader) {
-            for (ConfigurationFactory factory : serviceLoader) {
-                if (factory.supportsConfiguration(configurationTypeClass)) {
-                    return factory.supportsDefaultConfiguration(configurationTypeClass) || specificationProvider.hasSpecification(toSpecificationName(configurationTypeClass));
+            serviceLoader.reload();
+            registry = loadRegistry();
+        }
+    }
+
+    private Registry getRegistry() {
+        Registry current = registry;
+        if (current == null) {
+            synchronized (serviceLoader) {
+                current = registry;
+                if (current == null) {
+                    current = loadRegistry();
+                    registry = current;
                 }
             }
         }
-        return false;
+        return current;
+    }
+
+    private Registry loadRegistry() {
+        List<ConfigurationFactory> factories = new ArrayList<>();
+        for (ConfigurationFactory factory : serviceLoader) {
+            factories.add(factory);
+        }
+        LOGGER.debug("Loaded {} configuration factories", factories.size());
+        return new Registry(Collections.unmodifiableList(factories));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Configuration> boolean hasConfiguration(Class<T> configurationTypeClass) {
+        ConfigurationFactory factory = getRegistry().findFactory(configurationTypeClass);
+        return factory != null
+                && (factory.supportsDefaultConfiguration(configurationTypeClass) || specificationProvider.hasSpecification(toSpecificationName(configurationTypeClass)));
     }
 
     /**
@@ -63,27 +127,68 @@ public final class ConfigurationServiceLoader implements ConfigurationProvider {
 
     private <T extends Configuration> T doGetConfiguration(Class<T> configurationTypeClass, boolean withContext, Object context) throws ConfigurationNotFoundException, SpecificationNotFoundException, IOException, SpecificationFormatException, InvalidSpecificationException {
         Objects.requireNonNull(configurationTypeClass);
-        synchronized (serviceLoader) {
-            for (ConfigurationFactory factory : serviceLoader) {
-                if (factory.supportsConfiguration(configurationTypeClass)) {
-                    String specificationName = toSpecificationName(configurationTypeClass);
-                    if (specificationProvider.hasSpecification(specificationName)) {
-                        Specification specification = specificationProvider.getSpecification(toSpecificationName(configurationTypeClass));
-                        return withContext
-                                ? factory.createConfiguration(specification, configurationTypeClass, context)
-                                : factory.createConfiguration(specification, configurationTypeClass);
-                    } else {
-                        LOGGER.debug("No specification found for: " + specificationName);
-                        if (factory.supportsDefaultConfiguration(configurationTypeClass)) {
-                            LOGGER.debug("Creating default configuration for: " + configurationTypeClass);
-                            return factory.createDefaultConfiguration(configurationTypeClass);
-                        }
-                    }
+        ConfigurationFactory factory = getRegistry().findFactory(configurationTypeClass);
+        if (factory != null) {
+            String specificationName = toSpecificationName(configurationTypeClass);
+            if (specificationProvider.hasSpecification(specificationName)) {
+                Specification specification = specificationProvider.getSpecification(specificationName);
+                return withContext
+                        ? factory.createConfiguration(specification, configurationTypeClass, context)
+                        : factory.createConfiguration(specification, configurationTypeClass);
+            } else {
+                LOGGER.debug("No specification found for: " + specificationName);
+                if (factory.supportsDefaultConfiguration(configurationTypeClass)) {
+                    LOGGER.debug("Creating default configuration for: " + configurationTypeClass);
+                    return factory.createDefaultConfiguration(configurationTypeClass);
                 }
             }
+        }
+        LOGGER.warn("Configuration not found: " + configurationTypeClass);
+        throw new ConfigurationNotFoundException(configurationTypeClass);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Resolves the factory on the calling thread, and loads the specification with
+     * {@link SpecificationProvider#getSpecificationAsync(String, Executor)}. The factory creates the configuration
+     * on the thread that completes the specification, or on the calling thread if the specification is already
+     * available. When the specification doesn't exist, the default configuration of the factory is created, if
+     * supported.
+     */
+    @Override
+    public <T extends Configuration> CompletableFuture<T> getConfigurationAsync(Class<T> configurationTypeClass, Executor executor) {
+        Objects.requireNonNull(configurationTypeClass);
+        Objects.requireNonNull(executor);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ConfigurationFactory factory = getRegistry().findFactory(configurationTypeClass);
+        if (factory == null) {
             LOGGER.warn("Configuration not found: " + configurationTypeClass);
-            throw new ConfigurationNotFoundException(configurationTypeClass);
+            future.completeExceptionally(new ConfigurationNotFoundException(configurationTypeClass));
+            return future;
         }
+        String specificationName = toSpecificationName(configurationTypeClass);
+        specificationProvider.getSpecificationAsync(specificationName, executor).whenComplete((specification, cause) -> {
+            try {
+                if (cause == null) {
+                    future.complete(factory.createConfiguration(specification, configurationTypeClass));
+                    return;
+                }
+                Throwable failure = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+                if (failure instanceof SpecificationNotFoundException && factory.supportsDefaultConfiguration(configurationTypeClass)) {
+                    LOGGER.debug("Creating default configuration for: " + configurationTypeClass);
+                    future.complete(factory.createDefaultConfiguration(configurationTypeClass));
+                } else if (failure instanceof SpecificationNotFoundException) {
+                    LOGGER.warn("Configuration not found: " + configurationTypeClass);
+                    future.completeExceptionally(new ConfigurationNotFoundException(configurationTypeClass));
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            } catch (Exception | Error failure) {
+                future.completeExceptionally(failure);
+            }
+        });
+        return future;
     }
 
     /**
@@ -105,14 +210,11 @@ public final class ConfigurationServiceLoader implements ConfigurationProvider {
     private <T extends Configuration> T doParseConfiguration(Class<T> configurationTypeClass, Specification specification, boolean withContext, Object context) throws ConfigurationNotFoundException, InvalidSpecificationException {
         Objects.requireNonNull(configurationTypeClass);
         Objects.requireNonNull(specification);
-        synchronized (serviceLoader) {
-            for (ConfigurationFactory factory : serviceLoader) {
-                if (factory.supportsConfiguration(configurationTypeClass)) {
-                    return withContext
-                            ? factory.createConfiguration(specification, configurationTypeClass, context)
-                            : factory.createConfiguration(specification, configurationTypeClass);
-                }
-            }
+        ConfigurationFactory factory = getRegistry().findFactory(configurationTypeClass);
+        if (factory != null) {
+            return withContext
+                    ? factory.createConfiguration(specification, configurationTypeClass, context)
+                    : factory.createConfiguration(specification, configurationTypeClass);
         }
         LOGGER.warn("Configuration not found: " + configurationTypeClass);
         throw new ConfigurationNotFoundException(configurationTypeClass);
@@ -132,4 +234,29 @@ public final class ConfigurationServiceLoader implements ConfigurationProvider {
     public static ConfigurationServiceLoader create() {
         return new ConfigurationServiceLoader(ServiceLoader.load(ConfigurationFactory.class), SpecificationProvider.get());
     }
+
+    private static final class Registry {
+
+        private final List<ConfigurationFactory> factories;
+        private final ConcurrentMap<Class<?>, Optional<ConfigurationFactory>> resolved = new ConcurrentHashMap<>();
+
+        private Registry(List<ConfigurationFactory> factories) {
+            this.factories = factories;
+        }
+
+        private ConfigurationFactory findFactory(Class<? extends Configuration> configurationTypeClass) {
+            Optional<ConfigurationFactory> factory = resolved.get(configurationTypeClass);
+            if (factory == null) {
+                factory = Optional.empty();
+                for (ConfigurationFactory candidate : factories) {
+                    if (candidate.supportsConfiguration(configurationTypeClass)) {
+                        factory = Optional.of(candidate);
+                        break;
+                    }
+                }
+                resolved.putIfAbsent(configurationTypeClass, factory);
+            }
+            return factory.orElse(null);
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package io.codeleaf.config.impl;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Implements a cache of the answers to existence checks, both present and absent, for the time to live of a
+ * {@link CachePolicy}. A repeated check within the time to live costs a single map lookup. When the policy doesn't
+ * have an existence time to live, nothing is remembered and every check is delegated.
+ *
+ * @param <K> the type of the keys
+ * @see CachePolicy#withExistenceTtl(java.time.Duration)
+ * @since 0.10.0
+ */
+public final class ExistenceCache<K> {
+
+    private static final long MINIMUM_SIZE = 1024;
+    private static final long UNBOUNDED_SIZE = 65536;
+
+    private final ConcurrentMap<K, Answer> answers = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final long maximumSize;
+
+    private ExistenceCache(long ttlNanos, long maximumSize) {
+        this.ttlNanos = ttlNanos;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the remembered answer for key, or the result of check if no answer is remembered.
+     *
+     * @param key   the key to check
+     * @param check the check to perform if no answer is remembered
+     * @return <code>true</code> if key exists, otherwise <code>false</code>
+     */
+    public boolean exists(K key, Predicate<? super K> check) {
+        if (ttlNanos == 0) {
+            return check.test(key);
+        }
+        Answer answer = answers.get(key);
+        if (answer != null && !answer.isExpired(System.nanoTime())) {
+            return answer.present;
+        }
+        boolean present = check.test(key);
+        remember(key, present);
+        return present;
+    }
+
+    /**
+     * Returns <code>true</code> if key is remembered as absent.
+     *
+     * @param key the key
+     * @return <code>true</code> if key is remembered as absent, otherwise <code>false</code>
+     */
+    public boolean isKnownAbsent(K key) {
+        if (ttlNanos == 0) {
+            return false;
+        }
+        Answer answer = answers.get(key);
+        return answer != null && !answer.present && !answer.isExpired(System.nanoTime());
+    }
+
+    /**
+     * Remembers that key exists.
+     *
+     * @param key the key
+     */
+    public void markPresent(K key) {
+        remember(key, true);
+    }
+
+    /**
+     * Remembers that key doesn't exist.
+     *
+     * @param key the key
+     */
+    public void markAbsent(K key) {
+        remember(key, false);
+    }
+
+    /**
+     * Forgets the answer for key.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        answers.remove(key);
+    }
+
+    /**
+     * Forgets all answers.
+     */
+    public void invalidateAll() {
+        answers.clear();
+    }
+
+    private void remember(K key, boolean present) {
+        if (ttlNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        answers.put(key, new Answer(present, now + ttlNanos));
+        if (answers.size() > maximumSize) {
+            purge(now);
+        }
+    }
+
+    private void purge(long now) {
+        for (Map.Entry<K, Answer> entry : answers.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                answers.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (answers.size() > maximumSize) {
+            answers.clear();
+        }
+    }
+
+    /**
+     * Creates a new instance remembering answers for the existence time to live of policy. When more answers are kept
+     * than twice the maximum size of the policy, with a minimum of 1024, or 65536 for an unbounded policy, the expired
+     * answers are forgotten, or all answers if none has expired.
+     *
+     * @param policy the policy
+     * @param <K>    the type of the keys
+     * @return the new instance
+     * @throws NullPointerException if policy is <code>null</code>
+     */
+    public static <K> ExistenceCache<K> create(CachePolicy policy) {
+        Objects.requireNonNull(policy);
+        long ttlNanos = policy.getExistenceTtl() == null ? 0 : policy.getExistenceTtl().toNanos();
+        long maximumSize = policy.getMaximumSize() == Long.MAX_VALUE
+                ? UNBOUNDED_SIZE
+                : Math.max(MINIMUM_SIZE, Math.min(policy.getMaximumSize(), Long.MAX_VALUE / 2) * 2);
+        return new ExistenceCache<>(ttlNanos, maximumSize);
+    }
+
+    private static final class Answer {
+
+        private final boolean present;
+        private final long expires;
+
+        private Answer(boolean present, long expires) {
+            this.present = present;
+            this.expires = expires;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expires > 0;
+        }
+    }
+}
@@ -0,0 +1,698 @@
+package io.codeleaf.config.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Implements a concurrent cache that loads missing values at most once at a time per key.
+ * <p>
+ * The first caller that misses a key loads the value, and concurrent callers for the same key wait for that load
+ * and receive the same result. When the load fails, the failure is thrown to the loading caller and to all waiting
+ * callers, and the key is removed so that a later call tries again. Callers for different keys never block each
+ * other. A loader must not request the key it is loading.
+ * <p>
+ * The {@link CachePolicy} bounds the cache. Reading a cached value doesn't lock: it only records the time and count
+ * of the access on the entry. When a load makes the cache exceed its bounds, the loading caller evicts entries until
+ * the cache is within its bounds again. Each victim is the least recently or least frequently used entry of a small
+ * sample, taken by a cursor that moves through the entries across evictions, so the cost of an eviction doesn't
+ * depend on the size of the cache. The best candidates of earlier samples are kept in a small pool and compete with
+ * the next sample. The access counts are halved after every ten accesses per entry, so that entries that were
+ * popular long ago eventually make room. Expired entries are removed when they are read, and by a sweep of all
+ * entries that runs at most once per expiry duration. Evicting doesn't block readers, and an evicted value is simply
+ * loaded again on its next access.
+ * <p>
+ * When the policy refreshes entries, the first read of an entry older than the refresh duration submits a reload of
+ * that entry to the refresh executor and still returns the cached value. The reloaded value replaces the cached
+ * value when the reload completes. A failed reload is logged, and the cached value is kept until the next refresh.
+ * <p>
+ * The cache counts hits, misses, loads, load times and evictions in uncontended counters, see {@link #getStats()}.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @see CachePolicy
+ * @since 0.10.0
+ */
+public final class LoadingCache<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadingCache.class);
+    private static final int SAMPLE_SIZE = 8;
+    private static final int POOL_SIZE = 16;
+    private static final int DECAY_ACCESSES_PER_ENTRY = 10;
+    private static final int MINIMUM_DECAY_ACCESSES = 1024;
+
+    private final ConcurrentMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder[] loadTimeHistogram = new LongAdder[CacheStats.BUCKET_COUNT];
+    private final LongAdder evictionCount = new LongAdder();
+    private final CachePolicy policy;
+    private final Weigher<? super K, ? super V> weigher;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private volatile long lastSweep;
+    private final List<Candidate<K, V>> pool = new ArrayList<>();
+    private Iterator<Map.Entry<K, Node<V>>> cursor;
+    private long lastDecay;
+
+    private LoadingCache(CachePolicy policy, Weigher<? super K, ? super V> weigher) {
+        this.policy = policy;
+        this.weigher = weigher;
+        this.expireAfterAccessNanos = policy.getExpireAfterAccess() == null ? 0 : policy.getExpireAfterAccess().toNanos();
+        this.refreshAfterWriteNanos = policy.getRefreshAfterWrite() == null ? 0 : policy.getRefreshAfterWrite().toNanos();
+        for (int i = 0; i < loadTimeHistogram.length; i++) {
+            loadTimeHistogram[i] = new LongAdder();
+        }
+        this.lastSweep = System.nanoTime();
+    }
+
+    /**
+     * Returns the policy of this cache.
+     *
+     * @return the policy
+     */
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of entries in this cache, including entries that are being loaded.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache. The counters are read one by one while the cache may be in
+     * use, so the snapshot is not necessarily consistent across counters.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        long[] histogram = new long[loadTimeHistogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = loadTimeHistogram[i].sum();
+        }
+        return CacheStats.create(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                totalLoadTime.sum(), histogram, evictionCount.sum(), entries.size());
+    }
+
+    /**
+     * Returns <code>true</code> if a value is cached for the specified key. A value that is still being loaded is
+     * not considered cached.
+     *
+     * @param key the key
+     * @return <code>true</code> if a value is cached for key, otherwise <code>false</code>
+     */
+    public boolean has(K key) {
+        Node<V> node = entries.get(key);
+        return node != null && node.future.isDone() && !node.future.isCompletedExceptionally() && !isExpired(node, System.nanoTime());
+    }
+
+    /**
+     * Returns the value cached for the specified key, without loading it and without counting a hit or a miss. A
+     * value that is still being loaded is not considered cached.
+     *
+     * @param key the key
+     * @return the cached value, or <code>null</code> if no value is cached for key
+     */
+    public V getIfPresent(K key) {
+        Node<V> node = entries.get(key);
+        return node != null && node.future.isDone() && !node.future.isCompletedExceptionally() && !isExpired(node, System.nanoTime())
+                ? node.future.join()
+                : null;
+    }
+
+    /**
+     * Returns the value for the specified key, loading it with loader if it is not cached. If another caller is
+     * already loading the key, this call waits for the result of that load.
+     *
+     * @param key    the key
+     * @param loader the loader to use when the value must be loaded
+     * @return the value
+     * @throws Exception            the exception thrown by the loader, either of this call or of the call it waited for
+     * @throws NullPointerException if key or loader is <code>null</code>
+     */
+    public V get(K key, Loader<? super K, ? extends V> loader) throws Exception {
+        return get(key, Function.identity(), loader);
+    }
+
+    /**
+     * Returns the value for the specified key, loading it with loader if it is not cached, like
+     * {@link #get(Object, Loader)}. The cache is probed with lookupKey, and the key that is stored is only created by
+     * keyFactory when the value must be loaded. This allows probing with a cheaper key that is equal to the stored key.
+     *
+     * @param lookupKey  the key to probe the cache with
+     * @param keyFactory creates the key to store from lookupKey
+     * @param loader     the loader to use when the value must be loaded
+     * @return the value
+     * @throws Exception            the exception thrown by the loader, either of this call or of the call it waited for
+     * @throws NullPointerException if lookupKey, keyFactory or loader is <code>null</code>
+     */
+    public V get(K lookupKey, Function<? super K, ? extends K> keyFactory, Loader<? super K, ? extends V> loader) throws Exception {
+        Objects.requireNonNull(lookupKey);
+        Objects.requireNonNull(keyFactory);
+        Objects.requireNonNull(loader);
+        Node<V> node = findNode(lookupKey);
+        if (node != null && needsRefresh(node)) {
+            refresh(lookupKey, loader, node);
+        }
+        if (node == null) {
+            K key = Objects.requireNonNull(keyFactory.apply(lookupKey));
+            Node<V> newNode = new Node<>(System.nanoTime());
+            node = entries.putIfAbsent(key, newNode);
+            if (node == null) {
+                missCount.increment();
+                return load(key, loader, newNode);
+            }
+        }
+        hitCount.increment();
+        return join(node.future);
+    }
+
+    /**
+     * Returns a future of the value for the specified key, starting a load with loader if it is not cached. The
+     * calling thread never waits: a cached value is returned as a completed future, and a load that is in progress,
+     * either by another caller or by loader, is returned as a future that completes when that load completes.
+     * Synchronous and asynchronous callers share the same loads.
+     *
+     * @param key    the key
+     * @param loader the loader to use when the value must be loaded
+     * @return the future of the value, completing exceptionally with the exception of the load when it fails
+     * @throws NullPointerException if key or loader is <code>null</code>
+     */
+    public CompletableFuture<V> getAsync(K key, AsyncLoader<? super K, ? extends V> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        Node<V> node = findNode(key);
+        if (node != null && needsRefresh(node)) {
+            refreshAsync(key, loader, node);
+        }
+        if (node == null) {
+            Node<V> newNode = new Node<>(System.nanoTime());
+            node = entries.putIfAbsent(key, newNode);
+            if (node == null) {
+                missCount.increment();
+                loadAsync(key, loader, newNode);
+                return newNode.future.thenApply(value -> value);
+            }
+        }
+        hitCount.increment();
+        if (node.future.isDone() && !node.future.isCompletedExceptionally()) {
+            return CompletableFuture.completedFuture(node.future.join());
+        }
+        return node.future.thenApply(value -> value);
+    }
+
+    /**
+     * Removes the value for the specified key. A load that is in progress is not interrupted, but its result is not
+     * cached.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        Node<V> node = entries.remove(key);
+        if (node != null) {
+            uncount(node);
+        }
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void invalidateAll() {
+        for (K key : entries.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    private Node<V> findNode(K key) {
+        Node<V> node = entries.get(key);
+        if (node != null && policy != CachePolicy.unlimited()) {
+            long now = System.nanoTime();
+            if (isExpired(node, now)) {
+                evict(key, node);
+                return null;
+            }
+            node.accessed = now;
+            if (policy.getEviction() == CachePolicy.Eviction.LFU) {
+                node.frequency.getAndUpdate(frequency -> frequency == Integer.MAX_VALUE ? frequency : frequency + 1);
+            }
+        }
+        return node;
+    }
+
+    private V load(K key, Loader<? super K, ? extends V> loader, Node<V> node) throws Exception {
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.load(key);
+        } catch (Exception | Error cause) {
+            loadFailed(key, node, start, cause);
+            throw cause;
+        }
+        loadSucceeded(key, node, start, value);
+        return value;
+    }
+
+    private void loadAsync(K key, AsyncLoader<? super K, ? extends V> loader, Node<V> node) {
+        long start = System.nanoTime();
+        CompletableFuture<? extends V> future;
+        try {
+            future = Objects.requireNonNull(loader.load(key));
+        } catch (Exception | Error cause) {
+            loadFailed(key, node, start, cause);
+            return;
+        }
+        future.whenComplete((value, cause) -> {
+            if (cause == null) {
+                loadSucceeded(key, node, start, value);
+            } else {
+                loadFailed(key, node, start, unwrap(cause));
+            }
+        });
+    }
+
+    private void loadSucceeded(K key, Node<V> node, long start, V value) {
+        recordLoad(start, loadSuccessCount);
+        node.weight = weigh(key, value);
+        node.written = System.nanoTime();
+        count(key, node);
+        node.future.complete(value);
+        if (policy.isBounded() || expireAfterAccessNanos > 0) {
+            evictIfNeeded();
+        }
+    }
+
+    private void loadFailed(K key, Node<V> node, long start, Throwable cause) {
+        recordLoad(start, loadFailureCount);
+        entries.remove(key, node);
+        node.future.completeExceptionally(cause);
+    }
+
+    private void recordLoad(long start, LongAdder outcomeCount) {
+        long loadTime = System.nanoTime() - start;
+        outcomeCount.increment();
+        totalLoadTime.add(loadTime);
+        loadTimeHistogram[CacheStats.bucketOf(loadTime)].increment();
+    }
+
+    private long weigh(K key, V value) {
+        return policy.getMaximumWeight() != Long.MAX_VALUE ? Math.max(0, weigher.weigh(key, value)) : 0;
+    }
+
+    private boolean needsRefresh(Node<V> node) {
+        return refreshAfterWriteNanos > 0
+                && node.future.isDone()
+                && System.nanoTime() - node.written > refreshAfterWriteNanos
+                && !node.future.isCompletedExceptionally()
+                && node.refreshing.compareAndSet(false, true);
+    }
+
+    private void refresh(K key, Loader<? super K, ? extends V> loader, Node<V> node) {
+        schedule(key, node, () -> reload(key, loader, node));
+    }
+
+    private void refreshAsync(K key, AsyncLoader<? super K, ? extends V> loader, Node<V> node) {
+        schedule(key, node, () -> reloadAsync(key, loader, node));
+    }
+
+    private void schedule(K key, Node<V> node, Runnable reload) {
+        try {
+            policy.getRefreshExecutor().execute(reload);
+        } catch (RejectedExecutionException cause) {
+            LOGGER.warn("Failed to schedule refresh for: " + key + ": " + cause);
+            node.refreshing.set(false);
+        }
+    }
+
+    private void reload(K key, Loader<? super K, ? extends V> loader, Node<V> node) {
+        long start = System.nanoTime();
+        try {
+            reloadSucceeded(key, node, start, loader.load(key));
+        } catch (Exception | Error cause) {
+            reloadFailed(key, node, start, cause);
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+        } finally {
+            node.refreshing.set(false);
+        }
+    }
+
+    private void reloadAsync(K key, AsyncLoader<? super K, ? extends V> loader, Node<V> node) {
+        long start = System.nanoTime();
+        CompletableFuture<? extends V> future;
+        try {
+            future = Objects.requireNonNull(loader.load(key));
+        } catch (Exception | Error cause) {
+            reloadFailed(key, node, start, cause);
+            node.refreshing.set(false);
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return;
+        }
+        future.whenComplete((value, cause) -> {
+            try {
+                if (cause == null) {
+                    reloadSucceeded(key, node, start, value);
+                } else {
+                    reloadFailed(key, node, start, unwrap(cause));
+                }
+            } finally {
+                node.refreshing.set(false);
+            }
+        });
+    }
+
+    private void reloadSucceeded(K key, Node<V> node, long start, V value) {
+        recordLoad(start, loadSuccessCount);
+        Node<V> newNode = new Node<>(node.accessed);
+        newNode.frequency.set(node.frequency.get());
+        newNode.weight = weigh(key, value);
+        newNode.written = System.nanoTime();
+        newNode.future.complete(value);
+        if (entries.replace(key, node, newNode)) {
+            count(key, newNode);
+            uncount(node);
+            if (policy.getMaximumWeight() != Long.MAX_VALUE) {
+                evictIfNeeded();
+            }
+        }
+    }
+
+    private void reloadFailed(K key, Node<V> node, long start, Throwable cause) {
+        recordLoad(start, loadFailureCount);
+        LOGGER.warn("Failed to refresh, keeping previous value for: " + key + ": " + cause, cause);
+        node.written = System.nanoTime();
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return expireAfterAccessNanos > 0 && node.future.isDone() && now - node.accessed > expireAfterAccessNanos;
+    }
+
+    private void evict(K key, Node<V> node) {
+        if (entries.remove(key, node)) {
+            uncount(node);
+            evictionCount.increment();
+        }
+    }
+
+    private void count(K key, Node<V> node) {
+        if (node.counted.compareAndSet(Node.UNCOUNTED, Node.COUNTED)) {
+            weight.addAndGet(node.weight);
+        }
+        if (entries.get(key) != node) {
+            uncount(node);
+        }
+    }
+
+    private void uncount(Node<V> node) {
+        if (node.counted.getAndSet(Node.REMOVED) == Node.COUNTED) {
+            weight.addAndGet(-node.weight);
+        }
+    }
+
+    private void evictIfNeeded() {
+        long now = System.nanoTime();
+        boolean sweep = expireAfterAccessNanos > 0 && now - lastSweep > expireAfterAccessNanos;
+        if ((!sweep && !exceedsBounds()) || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (sweep) {
+                lastSweep = now;
+                for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+                    if (isExpired(entry.getValue(), now)) {
+                        evict(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            if (policy.getEviction() == CachePolicy.Eviction.LFU) {
+                decayIfNeeded();
+            }
+            boolean evicted = true;
+            while (evicted && exceedsBounds()) {
+                evicted = evictSample(now);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void decayIfNeeded() {
+        long accesses = hitCount.sum() + missCount.sum();
+        if (accesses - lastDecay < Math.max(MINIMUM_DECAY_ACCESSES, (long) DECAY_ACCESSES_PER_ENTRY * entries.size())) {
+            return;
+        }
+        lastDecay = accesses;
+        for (Node<V> node : entries.values()) {
+            node.frequency.updateAndGet(frequency -> frequency >>> 1);
+        }
+    }
+
+    private boolean evictSample(long now) {
+        pool.removeIf(candidate -> entries.get(candidate.key) != candidate.node);
+        boolean restarted = false;
+        for (int sampled = 0; sampled < SAMPLE_SIZE; ) {
+            if (cursor == null || !cursor.hasNext()) {
+                if (restarted) {
+                    break;
+                }
+                cursor = entries.entrySet().iterator();
+                restarted = true;
+                continue;
+            }
+            Map.Entry<K, Node<V>> entry = cursor.next();
+            Node<V> node = entry.getValue();
+            if (!node.future.isDone()) {
+                continue;
+            }
+            sampled++;
+            if (isExpired(node, now)) {
+                evict(entry.getKey(), node);
+                return true;
+            }
+            if (!isPooled(node)) {
+                pool.add(new Candidate<>(entry.getKey(), node));
+            }
+        }
+        if (pool.isEmpty()) {
+            return false;
+        }
+        Candidate<K, V> victim = pool.get(0);
+        for (Candidate<K, V> candidate : pool) {
+            if (isBetterVictim(candidate.node, victim.node)) {
+                victim = candidate;
+            }
+        }
+        pool.remove(victim);
+        while (pool.size() > POOL_SIZE) {
+            Candidate<K, V> worst = pool.get(0);
+            for (Candidate<K, V> candidate : pool) {
+                if (isBetterVictim(worst.node, candidate.node)) {
+                    worst = candidate;
+                }
+            }
+            pool.remove(worst);
+        }
+        evict(victim.key, victim.node);
+        return true;
+    }
+
+    private boolean isPooled(Node<V> node) {
+        for (Candidate<K, V> candidate : pool) {
+            if (candidate.node == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBetterVictim(Node<V> node, Node<V> victim) {
+        if (policy.getEviction() == CachePolicy.Eviction.LFU) {
+            int result = Integer.compare(node.frequency.get(), victim.frequency.get());
+            if (result != 0) {
+                return result < 0;
+            }
+        }
+        return node.accessed - victim.accessed < 0;
+    }
+
+    private boolean exceedsBounds() {
+        return entries.size() > policy.getMaximumSize() || weight.get() > policy.getMaximumWeight();
+    }
+
+    private static Throwable unwrap(Throwable cause) {
+        return cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Creates a new empty instance that keeps all entries.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the new instance
+     */
+    public static <K, V> LoadingCache<K, V> create() {
+        return new LoadingCache<>(CachePolicy.unlimited(), (key, value) -> 1);
+    }
+
+    /**
+     * Creates a new empty instance with the specified policy, where each entry has a weight of 1.
+     *
+     * @param policy the policy of the cache
+     * @param <K>    the type of the keys
+     * @param <V>    the type of the values
+     * @return the new instance
+     * @throws NullPointerException if policy is <code>null</code>
+     */
+    public static <K, V> LoadingCache<K, V> create(CachePolicy policy) {
+        return create(policy, (key, value) -> 1);
+    }
+
+    /**
+     * Creates a new empty instance with the specified policy, using weigher to determine the weight of the entries.
+     *
+     * @param policy  the policy of the cache
+     * @param weigher the weigher of the entries
+     * @param <K>     the type of the keys
+     * @param <V>     the type of the values
+     * @return the new instance
+     * @throws NullPointerException if policy or weigher is <code>null</code>
+     */
+    public static <K, V> LoadingCache<K, V> create(CachePolicy policy, Weigher<? super K, ? super V> weigher) {
+        Objects.requireNonNull(policy);
+        Objects.requireNonNull(weigher);
+        return new LoadingCache<>(policy, weigher);
+    }
+
+    /**
+     * Represents the function that loads a value for a key.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+
+        /**
+         * Loads the value for the specified key.
+         *
+         * @param key the key
+         * @return the loaded value
+         * @throws Exception if the value can't be loaded
+         */
+        V load(K key) throws Exception;
+
+    }
+
+    /**
+     * Represents the function that starts loading a value for a key without waiting for it.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface AsyncLoader<K, V> {
+
+        /**
+         * Starts loading the value for the specified key.
+         *
+         * @param key the key
+         * @return the future of the loaded value
+         * @throws Exception if the load can't be started
+         */
+        CompletableFuture<? extends V> load(K key) throws Exception;
+
+    }
+
+    /**
+     * Represents the function that determines the weight of an entry, used when the policy has a maximum weight.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+
+        /**
+         * Returns the weight of the entry.
+         *
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         * @return the weight of the entry
+         */
+        long weigh(K key, V value);
+
+    }
+
+    private static final class Candidate<K, V> {
+
+        private final K key;
+        private final Node<V> node;
+
+        private Candidate(K key, Node<V> node) {
+            this.key = key;
+            this.node = node;
+        }
+    }
+
+    private static final class Node<V> {
+
+        private static final int UNCOUNTED = 0;
+        private static final int COUNTED = 1;
+        private static final int REMOVED = 2;
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger frequency = new AtomicInteger(1);
+        private final AtomicInteger counted = new AtomicInteger(UNCOUNTED);
+        private volatile long accessed;
+        private volatile long written;
+        private volatile long weight;
+
+        private Node(long accessed) {
+            this.accessed = accessed;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.codeleaf.config.spec;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the field of a setting as an immutable list of field parts.
+ * <p>
+ * A field path is a <code>List&lt;String&gt;</code>, so it can be passed to every method that accepts a field.
+ * The hash code is computed once on construction, which makes a field path a cheap key for lookups.
+ * Field paths that are used on hot paths can be created once, interned using {@link #intern()} and kept as constants;
+ * interned field paths that are equal are also identical.
+ *
+ * @see Specification
+ * @since 0.10.0
+ */
+public final class FieldPath extends AbstractList<String> implements RandomAccess, Serializable {
+
+    private static final ConcurrentMap<FieldPath, FieldPath> INTERNED = new ConcurrentHashMap<>();
+
+    /**
+     * The field path without any field parts, this is the prefix of all fields.
+     */
+    public static final FieldPath ROOT = new FieldPath(new String[0]).intern();
+
+    private final String[] parts;
+    private final int hash;
+
+    private FieldPath(String[] parts) {
+        this.parts = parts;
+        this.hash = hashCode(parts);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        return parts[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return parts.length;
+    }
+
+    /**
+     * Returns the last field part of this field path.
+     *
+     * @return the last field part
+     * @throws IllegalStateException if this is the root field path
+     */
+    public String getName() {
+        if (parts.length == 0) {
+            throw new IllegalStateException("Root has no name!");
+        }
+        return parts[parts.length - 1];
+    }
+
+    /**
+     * Returns the field path without the last field part.
+     *
+     * @return the parent field path
+     * @throws IllegalStateException if this is the root field path
+     */
+    public FieldPath parent() {
+        if (parts.length == 0) {
+            throw new IllegalStateException("Root has no parent!");
+        }
+        return parts.length == 1 ? ROOT : new FieldPath(Arrays.copyOf(parts, parts.length - 1));
+    }
+
+    /**
+     * Returns the field path that has the specified field parts appended to this field path.
+     *
+     * @param childParts the field parts to append
+     * @return the child field path
+     * @throws NullPointerException if any of the field parts is <code>null</code>
+     */
+    public FieldPath child(String... childParts) {
+        return child(Arrays.asList(childParts));
+    }
+
+    /**
+     * Returns the field path that has the specified field parts appended to this field path.
+     *
+     * @param childParts the field parts to append
+     * @return the child field path
+     * @throws NullPointerException if childParts or any of the field parts is <code>null</code>
+     */
+    public FieldPath child(List<String> childParts) {
+        if (childParts.isEmpty()) {
+            return this;
+        }
+        String[] newParts = Arrays.copyOf(parts, parts.length + childParts.size());
+        for (int i = 0; i < childParts.size(); i++) {
+            newParts[parts.length + i] = Objects.requireNonNull(childParts.get(i));
+        }
+        return new FieldPath(newParts);
+    }
+
+    /**
+     * Returns the field path without the first <code>prefixSize</code> field parts.
+     *
+     * @param prefixSize the number of field parts to remove
+     * @return the relative field path
+     * @throws IndexOutOfBoundsException if prefixSize is negative or larger than the size of this field path
+     */
+    public FieldPath relativize(int prefixSize) {
+        if (prefixSize < 0 || prefixSize > parts.length) {
+            throw new IndexOutOfBoundsException("Invalid prefix size: " + prefixSize);
+        }
+        return prefixSize == 0 ? this : new FieldPath(Arrays.copyOfRange(parts, prefixSize, parts.length));
+    }
+
+    /**
+     * Returns <code>true</code> if this field path starts with the specified field prefix.
+     *
+     * @param fieldPrefix the field prefix to match
+     * @return <code>true</code> if this field path starts with fieldPrefix, otherwise <code>false</code>
+     */
+    public boolean startsWith(List<String> fieldPrefix) {
+        if (fieldPrefix.size() > parts.length) {
+            return false;
+        }
+        for (int i = 0; i < fieldPrefix.size(); i++) {
+            if (!parts[i].equals(fieldPrefix.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the canonical instance of this field path. Interned field paths that are equal are also identical.
+     * Interned field paths are never released, so only intern field paths that are used as constants.
+     *
+     * @return the canonical instance of this field path
+     */
+    public FieldPath intern() {
+        FieldPath interned = INTERNED.putIfAbsent(this, this);
+        return interned == null ? this : interned;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof FieldPath) {
+            FieldPath other = (FieldPath) obj;
+            return hash == other.hash && Arrays.equals(parts, other.parts);
+        }
+        return super.equals(obj);
+    }
+
+    /**
+     * Creates a field path for the specified field parts.
+     *
+     * @param parts the field parts
+     * @return the field path
+     * @throws NullPointerException if any of the field parts is <code>null</code>
+     */
+    public static FieldPath of(String... parts) {
+        return parts.length == 0 ? ROOT : of(Arrays.asList(parts));
+    }
+
+    /**
+     * Returns the field path for the specified field. If the field is already a field path, the same instance is
+     * returned, otherwise the field parts are copied.
+     *
+     * @param field the field
+     * @return the field path
+     * @throws NullPointerException if field or any of the field parts is <code>null</code>
+     */
+    public static FieldPath of(List<String> field) {
+        if (field instanceof FieldPath) {
+            return (FieldPath) field;
+        }
+        if (field.isEmpty()) {
+            return ROOT;
+        }
+        String[] parts = field.toArray(new String[0]);
+        for (String part : parts) {
+            Objects.requireNonNull(part);
+        }
+        return new FieldPath(parts);
+    }
+
+    private static int hashCode(String[] parts) {
+        int hashCode = 1;
+        for (String part : parts) {
+            hashCode = 31 * hashCode + part.hashCode();
+        }
+        return hashCode;
+    }
+
+    private Object readResolve() {
+        return parts.length == 0 ? ROOT : this;
+    }
+}
@@ -13,25 +13,36 @@ import java.util.List;
 public class SettingNotFoundException extends InvalidSpecificationException {
 
     private final List<String> settingField;
+    private final String detail;
+    private final boolean causeDetail;
+    private volatile String message;
 
     public SettingNotFoundException(Specification configurationSpecification, List<String> settingField) {
-        super(configurationSpecification, createMessage(settingField, null));
+        super(configurationSpecification);
         this.settingField = settingField;
+        this.detail = null;
+        this.causeDetail = false;
     }
 
     public SettingNotFoundException(Specification configurationSpecification, List<String> settingField, String message) {
-        super(configurationSpecification, createMessage(settingField, message));
+        super(configurationSpecification, message);
         this.settingField = settingField;
+        this.detail = message;
+        this.causeDetail = false;
     }
 
     public SettingNotFoundException(Specification configurationSpecification, List<String> settingField, String message, Throwable cause) {
-        super(configurationSpecification, createMessage(settingField, message), cause);
+        super(configurationSpecification, message, cause);
         this.settingField = settingField;
+        this.detail = message;
+        this.causeDetail = false;
     }
 
     public SettingNotFoundException(Specification configurationSpecification, List<String> settingField, Throwable cause) {
-        super(configurationSpecification, createMessage(settingField, cause == null ? null : cause.getMessage()), cause);
+        super(configurationSpecification, cause);
         this.settingField = settingField;
+        this.detail = null;
+        this.causeDetail = true;
     }
 
     /**
@@ -43,6 +54,34 @@ public class SettingNotFoundException extends InvalidSpecificationException {
         return settingField;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The message is created the first time it is requested, so constructing this exception doesn't format the
+     * field.
+     */
+    @Override
+    public String getMessage() {
+        String message = this.message;
+        if (message == null) {
+            Throwable cause = getCause();
+            message = createMessage(settingField, causeDetail && cause != null ? cause.getMessage() : detail);
+            this.message = message;
+        }
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A missing setting is reported by the field, so this exception doesn't record a stack trace, which would be the
+     * most expensive part of constructing it.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
     private static String createMessage(List<String> settingField, String message) {
         StringBuilder sb = new StringBuilder("No setting found: ");
         if (settingField.isEmpty()) {
@@ -5,6 +5,8 @@ import java.util.*;
 /**
  * This represents a specification. A specification consists of a collection of settings.
  * Each setting has a field, modeled as a <code>List&lt;String&gt;</code>, and a value, modeled as a <code>Object</code>.
+ * Fields that are looked up often can be passed as a {@link FieldPath}, which is a <code>List&lt;String&gt;</code>
+ * with a cached hash code.
  *
  * @author tvburger@gmail.com
  * @since 0.1.0
@@ -165,6 +167,137 @@ public interface Specification extends Iterable<Specification.Setting> {
         return getValue(typeClass, Arrays.asList(field));
     }
 
+    /**
+     * Returns the setting with the specified field, or an empty optional if no such setting is present. Unlike
+     * {@link #getSetting(List)}, a missing setting doesn't throw an exception.
+     *
+     * @param field the field identifying the setting
+     * @return the setting identified by the specified field, or an empty optional
+     */
+    default Optional<Setting> findSetting(List<String> field) {
+        if (!hasSetting(field)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(getSetting(field));
+        } catch (SettingNotFoundException cause) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the setting with the specified field, or an empty optional if no such setting is present. Unlike
+     * {@link #getSetting(String...)}, a missing setting doesn't throw an exception.
+     *
+     * @param field the field identifying the setting
+     * @return the setting identified by the specified field, or an empty optional
+     */
+    default Optional<Setting> findSetting(String... field) {
+        return findSetting(Arrays.asList(field));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, or an empty optional if the setting is not present or
+     * its value is <code>null</code>.
+     *
+     * @param field the field identifying the setting whose value is returned
+     * @return the value of the setting identified by specified field, or an empty optional
+     */
+    default Optional<Object> findValue(List<String> field) {
+        return Optional.ofNullable(getValueOrDefault(field, null));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, or an empty optional if the setting is not present or
+     * its value is <code>null</code>.
+     *
+     * @param field the field identifying the setting whose value is returned
+     * @return the value of the setting identified by specified field, or an empty optional
+     */
+    default Optional<Object> findValue(String... field) {
+        return findValue(Arrays.asList(field));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, or defaultValue if the setting is not present.
+     *
+     * @param field        the field identifying the setting whose value is returned
+     * @param defaultValue the value to return if the setting is not present
+     * @return the value of the setting identified by specified field, or defaultValue
+     */
+    default Object getValueOrDefault(List<String> field, Object defaultValue) {
+        Optional<Setting> setting = findSetting(field);
+        return setting.isPresent() ? setting.get().getValue() : defaultValue;
+    }
+
+    /**
+     * Passes the field and value of each setting starting with the given field prefix to the visitor, in the order
+     * of iteration. The default implementation iterates over {@link #getSettings(List)}; implementations can
+     * override it to serve the settings from their internal storage, without creating a {@link Setting} per entry.
+     *
+     * @param fieldPrefix the field prefix that must match for a setting to be visited
+     * @param visitor     the visitor to pass the settings to
+     * @see SettingVisitor
+     */
+    default void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        for (Setting setting : getSettings(fieldPrefix)) {
+            visitor.visit(setting.getField(), setting.getValue());
+        }
+    }
+
+    /**
+     * Passes the field and value of each setting to the visitor, in the order of iteration.
+     *
+     * @param visitor the visitor to pass the settings to
+     * @see SettingVisitor
+     */
+    default void forEachSetting(SettingVisitor visitor) {
+        forEachSetting(FieldPath.ROOT, visitor);
+    }
+
+    /**
+     * Returns a view on the settings that start with the given field prefix. The fields in the view are relative to
+     * the prefix. The view doesn't copy any settings, lookups are delegated to this specification.
+     *
+     * @param fieldPrefix the field prefix of the settings in the view
+     * @return the view on the settings that start with fieldPrefix
+     */
+    default Specification subtree(List<String> fieldPrefix) {
+        return SubtreeSpecification.create(this, fieldPrefix);
+    }
+
+    /**
+     * Returns a view on the settings that start with the given field prefix. The fields in the view are relative to
+     * the prefix. The view doesn't copy any settings, lookups are delegated to this specification.
+     *
+     * @param fieldPrefix the field prefix of the settings in the view
+     * @return the view on the settings that start with fieldPrefix
+     */
+    default Specification subtree(String... fieldPrefix) {
+        return subtree(Arrays.asList(fieldPrefix));
+    }
+
+    /**
+     * Represents a visitor of the settings within a specification.
+     * <p>
+     * The field passed to the visitor is only valid during the call: a specification may reuse the same list for the
+     * next setting. Use {@link FieldPath#of(List)} to keep a field after the call returns.
+     *
+     * @see #forEachSetting(List, SettingVisitor)
+     */
+    @FunctionalInterface
+    interface SettingVisitor {
+
+        /**
+         * Visits a setting.
+         *
+         * @param field the field of the setting
+         * @param value the value of the setting
+         */
+        void visit(List<String> field, Object value);
+
+    }
+
     /**
      * Represents a setting within a specification.
      */
@@ -187,6 +320,15 @@ public interface Specification extends Iterable<Specification.Setting> {
             return field;
         }
 
+        /**
+         * Returns the field of the setting as a field path
+         *
+         * @return the field path
+         */
+        public FieldPath getFieldPath() {
+            return FieldPath.of(field);
+        }
+
         /**
          * Returns the value of the setting
          *
@@ -4,6 +4,10 @@ import io.codeleaf.config.spec.impl.SpecificationCache;
 import io.codeleaf.config.spec.impl.SpecificationServiceLoader;
 
 import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class is used to obtain specifications.
@@ -43,6 +47,41 @@ public interface SpecificationProvider {
      */
     Specification getSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException;
 
+    /**
+     * Returns a future of the specification with the specified name, loading it in the common fork join pool.
+     *
+     * @param specificationName the name of the specification
+     * @return the future of the specification
+     * @see #getSpecificationAsync(String, Executor)
+     */
+    default CompletableFuture<Specification> getSpecificationAsync(String specificationName) {
+        return getSpecificationAsync(specificationName, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a future of the specification with the specified name, without blocking the calling thread. The
+     * future completes exceptionally with the exception that {@link #getSpecification(String)} would throw. The
+     * default implementation calls <code>getSpecification</code> on executor; caching providers complete the future
+     * immediately when the specification is cached.
+     *
+     * @param specificationName the name of the specification
+     * @param executor          the executor to load the specification on
+     * @return the future of the specification
+     * @throws NullPointerException if executor is <code>null</code>
+     */
+    default CompletableFuture<Specification> getSpecificationAsync(String specificationName, Executor executor) {
+        Objects.requireNonNull(executor);
+        CompletableFuture<Specification> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(getSpecification(specificationName));
+            } catch (Exception cause) {
+                future.completeExceptionally(cause);
+            }
+        });
+        return future;
+    }
+
     /**
      * Holder for a singleton, to obtain the singleton, use {@link SpecificationProvider#get()}
      */
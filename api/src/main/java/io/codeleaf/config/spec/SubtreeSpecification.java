@@ -0,0 +1,159 @@
+package io.codeleaf.config.spec;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implements a view on the settings of a specification that start with a field prefix. The fields in the view are
+ * relative to the prefix. Nothing is copied: every lookup is delegated to the underlying specification with the
+ * prefix prepended.
+ *
+ * @see Specification#subtree(List)
+ * @since 0.10.0
+ */
+final class SubtreeSpecification implements Specification {
+
+    private final Specification specification;
+    private final FieldPath fieldPrefix;
+
+    private SubtreeSpecification(Specification specification, FieldPath fieldPrefix) {
+        this.specification = specification;
+        this.fieldPrefix = fieldPrefix;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Setting> iterator() {
+        return getSettings(FieldPath.ROOT).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Setting> getSettings(List<String> fieldPrefix) {
+        Iterable<Setting> settings = specification.getSettings(this.fieldPrefix.child(fieldPrefix));
+        return () -> new RelativeSettingIterator(settings.iterator());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        int prefixSize = this.fieldPrefix.size();
+        specification.forEachSetting(this.fieldPrefix.child(fieldPrefix),
+                (field, value) -> visitor.visit(field.subList(prefixSize, field.size()), value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<List<String>> getDefined(List<String> fieldPrefix) {
+        List<List<String>> defined = specification.getDefined(this.fieldPrefix.child(fieldPrefix));
+        List<List<String>> relativeDefined = new ArrayList<>(defined.size());
+        for (List<String> field : defined) {
+            relativeDefined.add(FieldPath.of(field).relativize(this.fieldPrefix.size()));
+        }
+        return relativeDefined;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        return specification.getChilds(this.fieldPrefix.child(fieldPrefix));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSetting(List<String> field) {
+        return specification.hasSetting(fieldPrefix.child(field));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        Optional<Setting> setting = findSetting(field);
+        if (!setting.isPresent()) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return setting.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Setting> findSetting(List<String> field) {
+        Optional<Setting> setting = specification.findSetting(fieldPrefix.child(field));
+        return setting.isPresent() ? Optional.of(new Setting(FieldPath.of(field), setting.get().getValue())) : setting;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueOrDefault(List<String> field, Object defaultValue) {
+        return specification.getValueOrDefault(fieldPrefix.child(field), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Specification subtree(List<String> fieldPrefix) {
+        return create(specification, this.fieldPrefix.child(fieldPrefix));
+    }
+
+    /**
+     * Creates a view on the settings of the specification that start with the field prefix.
+     *
+     * @param specification the specification to create the view on
+     * @param fieldPrefix   the field prefix
+     * @return the view, or the specification itself if the field prefix is empty
+     * @throws NullPointerException if specification or fieldPrefix is <code>null</code>
+     */
+    static Specification create(Specification specification, List<String> fieldPrefix) {
+        Objects.requireNonNull(specification);
+        Objects.requireNonNull(fieldPrefix);
+        if (fieldPrefix.isEmpty()) {
+            return specification;
+        }
+        if (specification instanceof SubtreeSpecification) {
+            return specification.subtree(fieldPrefix);
+        }
+        return new SubtreeSpecification(specification, FieldPath.of(fieldPrefix));
+    }
+
+    private final class RelativeSettingIterator implements Iterator<Setting> {
+
+        private final Iterator<Setting> iterator;
+
+        private RelativeSettingIterator(Iterator<Setting> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Setting next() {
+            Setting setting = iterator.next();
+            return new Setting(setting.getFieldPath().relativize(fieldPrefix.size()), setting.getValue());
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package io.codeleaf.config.spec.impl;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Implementation of a read-only specification with a compact memory layout.
+ * <p>
+ * The field parts are stored only once in a sorted table of names, and the settings are stored in flat arrays of
+ * name indices and values, together with an open addressing hash table over the fields. Settings are created when
+ * they are read, so this implementation trades some speed of reading for a much smaller retained heap. Exact lookups
+ * remain a single hash probe.
+ * <p>
+ * The settings are sorted by field, comparing the field parts by name, so the settings below a prefix form a range
+ * that is found with a binary search. Iterating over a prefix only visits the settings below that prefix, in sorted
+ * order.
+ *
+ * @see io.codeleaf.config.util.Specifications#compact(Specification)
+ * @since 0.10.0
+ */
+public final class CompactSpecification implements Specification, Serializable {
+
+    private final String[] names;
+    private final int[] fieldOffsets;
+    private final int[] fieldParts;
+    private final int[] hashes;
+    private final Object[] values;
+    private final int[] slots;
+
+    private CompactSpecification(String[] names, int[] fieldOffsets, int[] fieldParts, int[] hashes, Object[] values, int[] slots) {
+        this.names = names;
+        this.fieldOffsets = fieldOffsets;
+        this.fieldParts = fieldParts;
+        this.hashes = hashes;
+        this.values = values;
+        this.slots = slots;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Setting> iterator() {
+        return getSettings(FieldPath.ROOT).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Setting> getSettings(List<String> fieldPrefix) {
+        int[] range = findRange(fieldPrefix);
+        if (range == null) {
+            return Collections.emptyList();
+        }
+        List<Setting> settings = new ArrayList<>(range[1] - range[0]);
+        for (int i = range[0]; i < range[1]; i++) {
+            settings.add(createSetting(i));
+        }
+        return Collections.unmodifiableList(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The field passed to the visitor is a view on the internal arrays, which is moved to the next setting after
+     * the call returns.
+     */
+    @Override
+    public void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        int[] range = findRange(fieldPrefix);
+        if (range == null) {
+            return;
+        }
+        FieldView field = new FieldView();
+        for (int i = range[0]; i < range[1]; i++) {
+            field.index = i;
+            visitor.visit(field, values[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<List<String>> getDefined(List<String> fieldPrefix) {
+        FieldPath prefix = FieldPath.of(fieldPrefix);
+        List<List<String>> defined = new ArrayList<>();
+        for (String child : getChilds(fieldPrefix)) {
+            defined.add(prefix.child(child));
+        }
+        return defined;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        List<String> childs = new ArrayList<>();
+        int[] range = findRange(fieldPrefix);
+        if (range == null) {
+            return childs;
+        }
+        int depth = fieldPrefix.size();
+        int previous = -1;
+        for (int i = range[0]; i < range[1]; i++) {
+            if (fieldOffsets[i + 1] - fieldOffsets[i] > depth) {
+                int name = fieldParts[fieldOffsets[i] + depth];
+                if (name != previous) {
+                    childs.add(names[name]);
+                    previous = name;
+                }
+            }
+        }
+        return childs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSetting(List<String> field) {
+        return find(field) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        int index = find(field);
+        if (index < 0) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return new Setting(FieldPath.of(field), values[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Setting> findSetting(List<String> field) {
+        int index = find(field);
+        return index < 0 ? Optional.empty() : Optional.of(new Setting(FieldPath.of(field), values[index]));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueOrDefault(List<String> field, Object defaultValue) {
+        int index = find(field);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns the number of settings in this specification.
+     *
+     * @return the number of settings
+     */
+    public int size() {
+        return values.length;
+    }
+
+    private int find(List<String> field) {
+        int hash = field.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (hashes[index] == hash && fieldMatches(index, field)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int[] findRange(List<String> fieldPrefix) {
+        int[] prefix = new int[fieldPrefix.size()];
+        for (int i = 0; i < prefix.length; i++) {
+            prefix[i] = Arrays.binarySearch(names, fieldPrefix.get(i));
+            if (prefix[i] < 0) {
+                return null;
+            }
+        }
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(middle, prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int start = low;
+        high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(middle, prefix) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return start < low ? new int[]{start, low} : null;
+    }
+
+    private int comparePrefix(int index, int[] prefix) {
+        int offset = fieldOffsets[index];
+        int length = fieldOffsets[index + 1] - offset;
+        for (int i = 0; i < Math.min(length, prefix.length); i++) {
+            int result = Integer.compare(fieldParts[offset + i], prefix[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return length < prefix.length ? -1 : 0;
+    }
+
+    private boolean fieldMatches(int index, List<String> field) {
+        return fieldOffsets[index + 1] - fieldOffsets[index] == field.size() && prefixMatches(index, field);
+    }
+
+    private boolean prefixMatches(int index, List<String> fieldPrefix) {
+        int offset = fieldOffsets[index];
+        if (fieldOffsets[index + 1] - offset < fieldPrefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < fieldPrefix.size(); i++) {
+            if (!names[fieldParts[offset + i]].equals(fieldPrefix.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Setting createSetting(int index) {
+        String[] parts = new String[fieldOffsets[index + 1] - fieldOffsets[index]];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = names[fieldParts[fieldOffsets[index] + i]];
+        }
+        return new Setting(FieldPath.of(parts), values[index]);
+    }
+
+    private final class FieldView extends AbstractList<String> implements RandomAccess {
+
+        private int index;
+
+        @Override
+        public String get(int i) {
+            if (i < 0 || i >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+            }
+            return names[fieldParts[fieldOffsets[index] + i]];
+        }
+
+        @Override
+        public int size() {
+            return fieldOffsets[index + 1] - fieldOffsets[index];
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Creates a new instance containing the same settings as the specified specification
+     *
+     * @param specification the specification settings to include
+     * @return the newly created instance
+     * @throws NullPointerException if specification is <code>null</code>
+     */
+    public static CompactSpecification create(Specification specification) {
+        Objects.requireNonNull(specification);
+        if (specification instanceof CompactSpecification) {
+            return (CompactSpecification) specification;
+        }
+        Map<String, Integer> nameIndices = new HashMap<>();
+        List<int[]> fields = new ArrayList<>();
+        List<Object> unsortedValues = new ArrayList<>();
+        specification.forEachSetting((field, value) -> {
+            int[] parts = new int[field.size()];
+            for (int i = 0; i < parts.length; i++) {
+                Integer nameIndex = nameIndices.get(field.get(i));
+                if (nameIndex == null) {
+                    nameIndex = nameIndices.size();
+                    nameIndices.put(field.get(i), nameIndex);
+                }
+                parts[i] = nameIndex;
+            }
+            fields.add(parts);
+            unsortedValues.add(value);
+        });
+        String[] names = nameIndices.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        int[] sortedNameIndices = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            sortedNameIndices[nameIndices.get(names[i])] = i;
+        }
+        for (int[] parts : fields) {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = sortedNameIndices[parts[i]];
+            }
+        }
+        Integer[] order = new Integer[fields.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> compareFields(fields.get(first), fields.get(second)));
+        List<Object> values = new ArrayList<>(order.length);
+        List<Integer> fieldOffsets = new ArrayList<>(order.length + 1);
+        List<Integer> fieldParts = new ArrayList<>();
+        for (int index : order) {
+            fieldOffsets.add(fieldParts.size());
+            for (int part : fields.get(index)) {
+                fieldParts.add(part);
+            }
+            values.add(unsortedValues.get(index));
+        }
+        fieldOffsets.add(fieldParts.size());
+        int[] offsetArray = toArray(fieldOffsets);
+        int[] partArray = toArray(fieldParts);
+        int[] hashes = new int[values.size()];
+        int[] slots = new int[Integer.highestOneBit(Math.max(1, values.size()) * 2 - 1) << 1];
+        for (int i = 0; i < hashes.length; i++) {
+            int hash = 1;
+            for (int p = offsetArray[i]; p < offsetArray[i + 1]; p++) {
+                hash = 31 * hash + names[partArray[p]].hashCode();
+            }
+            hashes[i] = hash;
+            int slot = spread(hash) & (slots.length - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = i + 1;
+        }
+        return new CompactSpecification(names, offsetArray, partArray, hashes, values.toArray(), slots);
+    }
+
+    private static int compareFields(int[] first, int[] second) {
+        for (int i = 0; i < Math.min(first.length, second.length); i++) {
+            int result = Integer.compare(first[i], second[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(first.length, second.length);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
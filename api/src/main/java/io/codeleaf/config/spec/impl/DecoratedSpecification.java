@@ -5,6 +5,7 @@ import io.codeleaf.config.spec.Specification;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implements a decorator for a specification.
@@ -44,6 +45,14 @@ public abstract class DecoratedSpecification implements Specification {
         return specification.getSettings(fieldPrefix);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        specification.forEachSetting(fieldPrefix, visitor);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -60,6 +69,22 @@ public abstract class DecoratedSpecification implements Specification {
         return specification.getSetting(field);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Setting> findSetting(List<String> field) {
+        return specification.findSetting(field);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueOrDefault(List<String> field, Object defaultValue) {
+        return specification.getValueOrDefault(field, defaultValue);
+    }
+
     /**
      * {@inheritDoc}
      */
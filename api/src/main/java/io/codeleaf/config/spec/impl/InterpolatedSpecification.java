@@ -0,0 +1,326 @@
+package io.codeleaf.config.spec.impl;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.InvalidSettingException;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.util.Settings;
+
+import java.util.*;
+
+/**
+ * Implements a specification that resolves references within string values, like
+ * <code>jdbc:${db.host}:${db.port}</code>.
+ * <p>
+ * A reference <code>${a.b}</code> refers to the setting <code>a.b</code> of the same specification,
+ * <code>${env:NAME}</code> to an environment variable and <code>${sys:name}</code> to a system property. A
+ * <code>$${</code> is replaced by a literal <code>${</code>. When a value consists of a single reference to a
+ * setting, the resolved value keeps the type of the referenced value. Values nested in lists or maps are not
+ * resolved.
+ * <p>
+ * Each string value containing <code>${</code> is compiled once into a template. All templates are resolved when the
+ * specification is created: missing references and cyclic references are reported at that moment. The resolved
+ * values are kept, so reading a resolved value costs the same as reading a plain value. Use
+ * {@link #refresh(Specification)} to apply a new version of the source specification; only the templates that
+ * changed, that depend on a changed setting, or that refer to the environment or the system properties are resolved
+ * again.
+ *
+ * @since 0.10.0
+ */
+public final class InterpolatedSpecification extends DecoratedSpecification {
+
+    private final Specification source;
+    private final Map<List<String>, Template> templates;
+    private final Map<List<String>, Object> resolvedValues;
+
+    private InterpolatedSpecification(Specification resolved, Specification source, Map<List<String>, Template> templates, Map<List<String>, Object> resolvedValues) {
+        super(resolved);
+        this.source = source;
+        this.templates = templates;
+        this.resolvedValues = resolvedValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        return specification.getChilds(fieldPrefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        Optional<Setting> setting = specification.findSetting(field);
+        if (!setting.isPresent()) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return setting.get();
+    }
+
+    /**
+     * Returns the specification containing the unresolved values.
+     *
+     * @return the source specification
+     */
+    public Specification getSource() {
+        return source;
+    }
+
+    /**
+     * Returns <code>true</code> if the value of the setting with the specified field is a template.
+     *
+     * @param field the field identifying the setting
+     * @return <code>true</code> if the setting is present and its value is a template, otherwise <code>false</code>
+     */
+    public boolean isTemplate(List<String> field) {
+        return templates.containsKey(field);
+    }
+
+    /**
+     * Returns a new interpolated specification for a new version of the source specification. Templates whose text
+     * didn't change are not compiled again, and their resolved values are reused unless a setting they depend on
+     * changed.
+     *
+     * @param specification the new version of the source specification
+     * @return the new interpolated specification
+     * @throws InvalidSettingException if a template is malformed, refers to a missing value, or is part of a cycle
+     * @throws NullPointerException    if specification is <code>null</code>
+     */
+    public InterpolatedSpecification refresh(Specification specification) throws InvalidSettingException {
+        Objects.requireNonNull(specification);
+        return new Resolver(specification, this).resolve();
+    }
+
+    /**
+     * Creates a new instance resolving the templates of the specified specification.
+     *
+     * @param specification the specification to resolve, must be immutable
+     * @return the new instance
+     * @throws InvalidSettingException if a template is malformed, refers to a missing value, or is part of a cycle
+     * @throws NullPointerException    if specification is <code>null</code>
+     */
+    public static InterpolatedSpecification create(Specification specification) throws InvalidSettingException {
+        Objects.requireNonNull(specification);
+        return new Resolver(specification, null).resolve();
+    }
+
+    private static final class Resolver {
+
+        private final Specification source;
+        private final InterpolatedSpecification previous;
+        private final Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
+        private final Map<List<String>, Template> templates = new HashMap<>();
+        private final Set<List<String>> changed = new HashSet<>();
+        private final Map<List<String>, Object> resolvedValues = new HashMap<>();
+        private final Set<List<String>> dirty = new HashSet<>();
+        private final Set<List<String>> visiting = new LinkedHashSet<>();
+
+        private Resolver(Specification source, InterpolatedSpecification previous) {
+            this.source = source;
+            this.previous = previous;
+        }
+
+        private InterpolatedSpecification resolve() throws InvalidSettingException {
+            source.forEachSetting((field, value) -> settingsMap.put(FieldPath.of(field), value));
+            for (Map.Entry<List<String>, Object> entry : settingsMap.entrySet()) {
+                if (entry.getValue() instanceof String && ((String) entry.getValue()).contains("${")) {
+                    templates.put(entry.getKey(), compile(entry.getKey(), (String) entry.getValue()));
+                }
+            }
+            if (previous != null) {
+                findChanges();
+            }
+            for (List<String> field : templates.keySet()) {
+                resolveTemplate(field);
+            }
+            Map<List<String>, Object> resolvedMap = new LinkedHashMap<>(settingsMap);
+            resolvedMap.putAll(resolvedValues);
+            return new InterpolatedSpecification(MapSpecification.create(resolvedMap), source,
+                    Collections.unmodifiableMap(templates), Collections.unmodifiableMap(resolvedValues));
+        }
+
+        private Template compile(List<String> field, String text) throws InvalidSettingException {
+            Template template = previous == null ? null : previous.templates.get(field);
+            if (template != null && template.text.equals(text)) {
+                return template;
+            }
+            try {
+                return Template.compile(text);
+            } catch (IllegalArgumentException cause) {
+                throw new InvalidSettingException(source, new Setting(field, text), cause.getMessage(), cause);
+            }
+        }
+
+        private void findChanges() {
+            Object missing = new Object();
+            for (Map.Entry<List<String>, Object> entry : settingsMap.entrySet()) {
+                if (!Objects.equals(previous.source.getValueOrDefault(entry.getKey(), missing), entry.getValue())) {
+                    changed.add(entry.getKey());
+                }
+            }
+            previous.source.forEachSetting((field, value) -> {
+                if (!settingsMap.containsKey(field)) {
+                    changed.add(FieldPath.of(field));
+                }
+            });
+        }
+
+        private void resolveTemplate(List<String> field) throws InvalidSettingException {
+            if (resolvedValues.containsKey(field)) {
+                return;
+            }
+            Template template = templates.get(field);
+            if (!visiting.add(field)) {
+                throw new InvalidSettingException(source, new Setting(field, template.text), "Cyclic reference: " + describeCycle(field));
+            }
+            boolean isDirty = previous == null || template.external || changed.contains(field);
+            for (Reference reference : template.references) {
+                if (templates.containsKey(reference.field)) {
+                    resolveTemplate(reference.field);
+                    isDirty |= dirty.contains(reference.field);
+                } else {
+                    isDirty |= changed.contains(reference.field);
+                }
+            }
+            visiting.remove(field);
+            if (isDirty) {
+                dirty.add(field);
+                resolvedValues.put(field, evaluate(field, template));
+            } else {
+                resolvedValues.put(field, previous.resolvedValues.get(field));
+            }
+        }
+
+        private Object evaluate(List<String> field, Template template) throws InvalidSettingException {
+            if (template.parts.length == 1 && template.parts[0] instanceof Reference) {
+                return lookup(field, template, (Reference) template.parts[0]);
+            }
+            StringBuilder builder = new StringBuilder();
+            for (Object part : template.parts) {
+                builder.append(part instanceof Reference ? lookup(field, template, (Reference) part) : part);
+            }
+            return builder.toString();
+        }
+
+        private Object lookup(List<String> field, Template template, Reference reference) throws InvalidSettingException {
+            Object value;
+            switch (reference.kind) {
+                case Reference.ENV:
+                    value = System.getenv(reference.name.substring(4));
+                    break;
+                case Reference.SYS:
+                    value = System.getProperty(reference.name.substring(4));
+                    break;
+                default:
+                    if (templates.containsKey(reference.field)) {
+                        return resolvedValues.get(reference.field);
+                    }
+                    if (settingsMap.containsKey(reference.field)) {
+                        return settingsMap.get(reference.field);
+                    }
+                    value = null;
+            }
+            if (value == null) {
+                throw new InvalidSettingException(source, new Setting(field, template.text), "Unresolved reference: ${" + reference.name + "}");
+            }
+            return value;
+        }
+
+        private String describeCycle(List<String> field) {
+            StringBuilder builder = new StringBuilder();
+            boolean inCycle = false;
+            for (List<String> visited : visiting) {
+                inCycle |= visited.equals(field);
+                if (inCycle) {
+                    builder.append(Settings.toString(visited)).append(" -> ");
+                }
+            }
+            return builder.append(Settings.toString(field)).toString();
+        }
+    }
+
+    private static final class Template {
+
+        private final String text;
+        private final Object[] parts;
+        private final List<Reference> references;
+        private final boolean external;
+
+        private Template(String text, Object[] parts, List<Reference> references, boolean external) {
+            this.text = text;
+            this.parts = parts;
+            this.references = references;
+            this.external = external;
+        }
+
+        private static Template compile(String text) {
+            List<Object> parts = new ArrayList<>();
+            List<Reference> references = new ArrayList<>();
+            boolean external = false;
+            StringBuilder literal = new StringBuilder();
+            int position = 0;
+            while (position < text.length()) {
+                if (text.startsWith("$${", position)) {
+                    literal.append("${");
+                    position += 3;
+                } else if (text.startsWith("${", position)) {
+                    int end = text.indexOf('}', position + 2);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated reference: " + text.substring(position));
+                    }
+                    Reference reference = Reference.parse(text.substring(position + 2, end).trim());
+                    if (literal.length() > 0) {
+                        parts.add(literal.toString());
+                        literal.setLength(0);
+                    }
+                    parts.add(reference);
+                    if (reference.kind == Reference.SETTING) {
+                        references.add(reference);
+                    } else {
+                        external = true;
+                    }
+                    position = end + 1;
+                } else {
+                    literal.append(text.charAt(position++));
+                }
+            }
+            if (literal.length() > 0 || parts.isEmpty()) {
+                parts.add(literal.toString());
+            }
+            return new Template(text, parts.toArray(), references, external);
+        }
+    }
+
+    private static final class Reference {
+
+        private static final int SETTING = 0;
+        private static final int ENV = 1;
+        private static final int SYS = 2;
+
+        private final int kind;
+        private final String name;
+        private final FieldPath field;
+
+        private Reference(int kind, String name, FieldPath field) {
+            this.kind = kind;
+            this.name = name;
+            this.field = field;
+        }
+
+        private static Reference parse(String name) {
+            if (name.startsWith("env:") && name.length() > 4) {
+                return new Reference(ENV, name, null);
+            }
+            if (name.startsWith("sys:") && name.length() > 4) {
+                return new Reference(SYS, name, null);
+            }
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty reference: ${}");
+            }
+            return new Reference(SETTING, name, FieldPath.of(name.split("\\.")));
+        }
+    }
+}
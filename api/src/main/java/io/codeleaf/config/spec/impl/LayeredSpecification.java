@@ -0,0 +1,122 @@
+package io.codeleaf.config.spec.impl;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+
+import java.util.*;
+
+/**
+ * Implements a specification that overlays an ordered list of layers, for example packaged defaults, a site file and
+ * host specific overrides. When a field is defined in multiple layers, the value of the last layer wins.
+ * <p>
+ * The layers are merged once, when the layered specification is created, into a single {@link MapSpecification}.
+ * Looking up a setting is therefore a single probe, independent of the number of layers, and
+ * {@link #getDefined(List)} and {@link #getChilds(List)} return the union of the fields of all layers. The layer
+ * that provided a value can be obtained using {@link #getOrigin(List)}. The layers must be immutable.
+ *
+ * @see LayeredSpecificationProvider
+ * @since 0.10.0
+ */
+public final class LayeredSpecification extends DecoratedSpecification {
+
+    private final List<Specification> layers;
+    private final Map<List<String>, Specification> origins;
+
+    private LayeredSpecification(Specification merged, List<Specification> layers, Map<List<String>, Specification> origins) {
+        super(merged);
+        this.layers = layers;
+        this.origins = origins;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        return specification.getChilds(fieldPrefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        Optional<Setting> setting = specification.findSetting(field);
+        if (!setting.isPresent()) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return setting.get();
+    }
+
+    /**
+     * Returns the layers of this specification, from the lowest to the highest precedence.
+     *
+     * @return the layers
+     */
+    public List<Specification> getLayers() {
+        return layers;
+    }
+
+    /**
+     * Returns the layer that provided the value of the setting with the specified field.
+     *
+     * @param field the field identifying the setting
+     * @return the layer that provided the value of the setting
+     * @throws SettingNotFoundException if the setting is not present in this specification
+     */
+    public Specification getOrigin(List<String> field) throws SettingNotFoundException {
+        Specification origin = origins.get(field);
+        if (origin == null) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return origin;
+    }
+
+    /**
+     * Returns the layer that provided the value of the setting with the specified field.
+     *
+     * @param field the field identifying the setting
+     * @return the layer that provided the value of the setting
+     * @throws SettingNotFoundException if the setting is not present in this specification
+     */
+    public Specification getOrigin(String... field) throws SettingNotFoundException {
+        return getOrigin(Arrays.asList(field));
+    }
+
+    /**
+     * Creates a new instance overlaying the specified layers.
+     *
+     * @param layers the layers, from the lowest to the highest precedence
+     * @return the new instance
+     * @throws NullPointerException if layers or any of its elements is <code>null</code>
+     */
+    public static LayeredSpecification create(Specification... layers) {
+        Objects.requireNonNull(layers);
+        return create(Arrays.asList(layers));
+    }
+
+    /**
+     * Creates a new instance overlaying the specified layers.
+     *
+     * @param layers the layers, from the lowest to the highest precedence
+     * @return the new instance
+     * @throws NullPointerException if layers or any of its elements is <code>null</code>
+     */
+    public static LayeredSpecification create(List<Specification> layers) {
+        Objects.requireNonNull(layers);
+        List<Specification> layerList = new ArrayList<>(layers.size());
+        Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
+        Map<List<String>, Specification> origins = new HashMap<>();
+        for (Specification layer : layers) {
+            Objects.requireNonNull(layer);
+            layerList.add(layer);
+            layer.forEachSetting((field, value) -> {
+                FieldPath fieldPath = FieldPath.of(field);
+                settingsMap.put(fieldPath, value);
+                origins.put(fieldPath, layer);
+            });
+        }
+        return new LayeredSpecification(MapSpecification.create(settingsMap), Collections.unmodifiableList(layerList), origins);
+    }
+}
@@ -0,0 +1,102 @@
+package io.codeleaf.config.spec.impl;
+
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.spec.SpecificationFormatException;
+import io.codeleaf.config.spec.SpecificationNotFoundException;
+import io.codeleaf.config.spec.SpecificationProvider;
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Implements a specification provider that resolves a specification name in each of an ordered list of loaders, and
+ * overlays the specifications that are found as a {@link LayeredSpecification}. A loader later in the list takes
+ * precedence over a loader earlier in the list.
+ *
+ * @see LayeredSpecification
+ * @since 0.10.0
+ */
+public final class LayeredSpecificationProvider implements SpecificationProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LayeredSpecificationProvider.class);
+
+    private final List<SpecificationLoader> loaders;
+
+    private LayeredSpecificationProvider(List<SpecificationLoader> loaders) {
+        this.loaders = loaders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSpecification(String specificationName) {
+        for (SpecificationLoader loader : loaders) {
+            if (loader.hasSpecification(specificationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned specification is a {@link LayeredSpecification}, containing a layer for each loader that has a
+     * specification with the given name.
+     */
+    @Override
+    public LayeredSpecification getSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
+        List<Specification> layers = new ArrayList<>(loaders.size());
+        for (SpecificationLoader loader : loaders) {
+            if (loader.hasSpecification(specificationName)) {
+                LOGGER.debug("Loading specification layer for {} from: {}", specificationName, loader);
+                layers.add(loader.loadSpecification(specificationName));
+            }
+        }
+        if (layers.isEmpty()) {
+            throw new SpecificationNotFoundException(specificationName);
+        }
+        return LayeredSpecification.create(layers);
+    }
+
+    /**
+     * Returns the loaders of this provider, from the lowest to the highest precedence.
+     *
+     * @return the loaders
+     */
+    public List<SpecificationLoader> getLoaders() {
+        return loaders;
+    }
+
+    /**
+     * Creates a new instance that overlays the specifications of the specified loaders.
+     *
+     * @param loaders the loaders, from the lowest to the highest precedence
+     * @return the new instance
+     * @throws NullPointerException if loaders or any of its elements is <code>null</code>
+     */
+    public static LayeredSpecificationProvider create(SpecificationLoader... loaders) {
+        Objects.requireNonNull(loaders);
+        return create(Arrays.asList(loaders));
+    }
+
+    /**
+     * Creates a new instance that overlays the specifications of the specified loaders.
+     *
+     * @param loaders the loaders, from the lowest to the highest precedence
+     * @return the new instance
+     * @throws NullPointerException if loaders or any of its elements is <code>null</code>
+     */
+    public static LayeredSpecificationProvider create(List<SpecificationLoader> loaders) {
+        Objects.requireNonNull(loaders);
+        List<SpecificationLoader> loaderList = new ArrayList<>(loaders.size());
+        for (SpecificationLoader loader : loaders) {
+            loaderList.add(Objects.requireNonNull(loader));
+        }
+        return new LayeredSpecificationProvider(Collections.unmodifiableList(loaderList));
+    }
+}
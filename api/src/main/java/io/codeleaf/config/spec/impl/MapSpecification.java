@@ -1,28 +1,36 @@
 package io.codeleaf.config.spec.impl;
 
+import io.codeleaf.config.spec.FieldPath;
 import io.codeleaf.config.spec.SettingNotFoundException;
 import io.codeleaf.config.spec.Specification;
-import io.codeleaf.config.util.Settings;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
 
 /**
  * Implementation of a specification using a map.
+ * <p>
+ * The fields are stored as {@link FieldPath}s, so looking up a setting is a single hash probe, which doesn't need to
+ * rehash the field when it is a field path as well. The settings are kept in an array in the order of the map they
+ * were created from, and a prefix tree maps each prefix to the positions of the settings below it, in that same order.
+ * Iterating over a prefix therefore only touches the settings below that prefix.
  *
  * @author tvburger@gmail.com
  * @since 0.1.0
  */
 public final class MapSpecification implements Specification, Serializable {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(MapSpecification.class);
-
     private final Map<List<String>, Object> settingsMap;
+    private final transient Map<List<String>, Setting> index;
+    private final transient List<Setting> settings;
+    private final transient Node root;
 
     private MapSpecification(Map<List<String>, Object> settingsMap) {
         this.settingsMap = settingsMap;
+        this.index = new HashMap<>((int) (settingsMap.size() / 0.75f) + 1);
+        this.root = new Node();
+        this.settings = Collections.unmodifiableList(Arrays.asList(Node.index(settingsMap, index, root)));
+        root.compact();
     }
 
     /**
@@ -30,7 +38,7 @@ public final class MapSpecification implements Specification, Serializable {
      */
     @Override
     public Iterator<Setting> iterator() {
-        return new SettingIterator(Collections.emptyList());
+        return settings.iterator();
     }
 
     /**
@@ -38,12 +46,7 @@ public final class MapSpecification implements Specification, Serializable {
      */
     @Override
     public boolean hasSetting(List<String> field) {
-        for (Setting setting : getSettings(field)) {
-            if (Settings.sameField(setting.getField(), field)) {
-                return true;
-            }
-        }
-        return false;
+        return index.containsKey(field);
     }
 
     /**
@@ -51,44 +54,89 @@ public final class MapSpecification implements Specification, Serializable {
      */
     @Override
     public List<List<String>> getDefined(List<String> fieldPrefix) {
-        Set<String> nextLevelNames = new LinkedHashSet<>();
-        for (Setting setting : getSettings(fieldPrefix)) {
-            if (setting.getField().size() > fieldPrefix.size()) {
-                nextLevelNames.add(setting.getField().get(fieldPrefix.size()));
-            }
+        Node node = root.find(fieldPrefix);
+        if (node == null) {
+            return new ArrayList<>();
         }
-        List<List<String>> fieldNames = new ArrayList<>();
-        for (String nextLevelName : nextLevelNames) {
-            List<String> defined = new ArrayList<>(fieldPrefix.size() + 1);
-            defined.addAll(fieldPrefix);
-            defined.add(nextLevelName);
-            fieldNames.add(defined);
+        FieldPath prefix = FieldPath.of(fieldPrefix);
+        List<List<String>> fieldNames = new ArrayList<>(node.getChilds().size());
+        for (String nextLevelName : node.getChilds().keySet()) {
+            fieldNames.add(prefix.child(nextLevelName));
         }
         return fieldNames;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        Node node = root.find(fieldPrefix);
+        return node == null ? new ArrayList<>() : new ArrayList<>(node.getChilds().keySet());
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Iterable<Setting> getSettings(List<String> fieldPrefix) {
-        return new SettingIterable(fieldPrefix);
+        Node node = root.find(fieldPrefix);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return node == root ? settings : new IndexedSettings(settings, node.positions);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Setting getSetting(List<String> field) throws SettingNotFoundException {
-        for (Setting setting : getSettings(field)) {
-            if (Settings.sameField(setting.getField(), field)) {
-                return setting;
+    public void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        Node node = root.find(fieldPrefix);
+        if (node == null) {
+            return;
+        }
+        if (node == root) {
+            for (Setting setting : settings) {
+                visitor.visit(setting.getField(), setting.getValue());
             }
+            return;
+        }
+        for (int position : node.positions) {
+            Setting setting = settings.get(position);
+            visitor.visit(setting.getField(), setting.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        Setting setting = index.get(field);
+        if (setting != null) {
+            return setting;
         }
-        LOGGER.warn("Setting not found: " + Settings.toString(field));
         throw new SettingNotFoundException(this, field);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Setting> findSetting(List<String> field) {
+        return Optional.ofNullable(index.get(field));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueOrDefault(List<String> field, Object defaultValue) {
+        Setting setting = index.get(field);
+        return setting != null ? setting.getValue() : defaultValue;
+    }
+
     /**
      * Creates a new instance containing the same settings as the specified settingsMap
      *
@@ -99,11 +147,26 @@ public final class MapSpecification implements Specification, Serializable {
         Objects.requireNonNull(settingsMap);
         Map<List<String>, Object> clonedSettingsMap = new LinkedHashMap<>();
         for (Map.Entry<List<String>, Object> entry : settingsMap.entrySet()) {
-            clonedSettingsMap.put(new ArrayList<>(entry.getKey()), entry.getValue());
+            clonedSettingsMap.put(FieldPath.of(entry.getKey()), entry.getValue());
         }
         return new MapSpecification(Collections.unmodifiableMap(clonedSettingsMap));
     }
 
+    /**
+     * Creates a new instance that takes ownership of the specified settingsMap, without copying it. This is meant for
+     * parsers that build the map themselves: the fields must be {@link FieldPath}s, and the map must not be modified
+     * or exposed after it has been passed to this method.
+     *
+     * @param settingsMap the specification settings to take ownership of
+     * @return the newly created instance
+     * @throws NullPointerException if settingsMap is <code>null</code>
+     * @since 0.10.0
+     */
+    public static MapSpecification wrap(Map<List<String>, Object> settingsMap) {
+        Objects.requireNonNull(settingsMap);
+        return new MapSpecification(Collections.unmodifiableMap(settingsMap));
+    }
+
     /**
      * Creates a new instance containing the same settings as the specified specification
      *
@@ -113,9 +176,7 @@ public final class MapSpecification implements Specification, Serializable {
     public static MapSpecification create(Specification specification) {
         Objects.requireNonNull(specification);
         Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
-        for (Setting setting : specification) {
-            settingsMap.put(setting.getField(), setting.getValue());
-        }
+        specification.forEachSetting((field, value) -> settingsMap.put(FieldPath.of(field), value));
         return new MapSpecification(Collections.unmodifiableMap(settingsMap));
     }
 
@@ -129,9 +190,8 @@ public final class MapSpecification implements Specification, Serializable {
         Objects.requireNonNull(specification);
         Objects.requireNonNull(fieldPrefix);
         Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
-        for (Setting setting : specification.getSettings(fieldPrefix)) {
-            settingsMap.put(setting.getField().subList(fieldPrefix.size(), setting.getField().size()), setting.getValue());
-        }
+        specification.forEachSetting(fieldPrefix, (field, value) ->
+                settingsMap.put(FieldPath.of(field.subList(fieldPrefix.size(), field.size())), value));
         return new MapSpecification(Collections.unmodifiableMap(settingsMap));
     }
 
@@ -166,56 +226,90 @@ public final class MapSpecification implements Specification, Serializable {
         return normalizedMap;
     }
 
-    private final class SettingIterable implements Iterable<Setting> {
+    private Object readResolve() {
+        return new MapSpecification(settingsMap);
+    }
+
+    private static final class IndexedSettings extends AbstractList<Setting> implements RandomAccess {
+
+        private final List<Setting> settings;
+        private final int[] positions;
 
-        private final List<String> fieldPrefix;
+        private IndexedSettings(List<Setting> settings, int[] positions) {
+            this.settings = settings;
+            this.positions = positions;
+        }
 
-        private SettingIterable(List<String> fieldPrefix) {
-            this.fieldPrefix = fieldPrefix;
+        @Override
+        public Setting get(int index) {
+            return settings.get(positions[index]);
         }
 
         @Override
-        public Iterator<Setting> iterator() {
-            return new SettingIterator(fieldPrefix);
+        public int size() {
+            return positions.length;
         }
     }
 
-    private final class SettingIterator implements Iterator<Setting> {
+    private static final class Node {
 
-        private final Iterator<Map.Entry<List<String>, Object>> iterator = settingsMap.entrySet().iterator();
-        private final List<String> fieldPrefix;
-        private Setting next;
+        private static final int[] NO_POSITIONS = new int[0];
 
-        private SettingIterator(List<String> fieldPrefix) {
-            this.fieldPrefix = fieldPrefix;
+        private Map<String, Node> childs;
+        private int[] positions = NO_POSITIONS;
+        private int size;
+
+        private Map<String, Node> getChilds() {
+            return childs == null ? Collections.emptyMap() : childs;
         }
 
-        @Override
-        public boolean hasNext() {
-            if (next == null) {
-                setNext();
+        private Node find(List<String> field) {
+            Node node = this;
+            for (int i = 0; i < field.size() && node != null; i++) {
+                node = node.childs == null ? null : node.childs.get(field.get(i));
             }
-            return next != null;
+            return node;
         }
 
-        @Override
-        public Setting next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
+        private Node child(String name) {
+            if (childs == null) {
+                childs = new LinkedHashMap<>(4);
+            }
+            return childs.computeIfAbsent(name, key -> new Node());
+        }
+
+        private void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(4, size * 2));
+            }
+            positions[size++] = position;
+        }
+
+        private void compact() {
+            if (size != positions.length) {
+                positions = Arrays.copyOf(positions, size);
+            }
+            if (childs != null) {
+                for (Node child : childs.values()) {
+                    child.compact();
+                }
             }
-            Setting current = next;
-            setNext();
-            return current;
         }
 
-        private void setNext() {
-            next = null;
-            while (next == null && iterator.hasNext()) {
-                Map.Entry<List<String>, Object> entry = iterator.next();
-                if (Settings.prefixMatches(fieldPrefix, entry.getKey())) {
-                    next = new Setting(entry.getKey(), entry.getValue());
+        private static Setting[] index(Map<List<String>, Object> settingsMap, Map<List<String>, Setting> index, Node root) {
+            Setting[] settings = new Setting[settingsMap.size()];
+            int position = 0;
+            for (Map.Entry<List<String>, Object> entry : settingsMap.entrySet()) {
+                Setting setting = new Setting(entry.getKey(), entry.getValue());
+                Node node = root;
+                for (String part : entry.getKey()) {
+                    node = node.child(part);
+                    node.add(position);
                 }
+                settings[position++] = setting;
+                index.put(entry.getKey(), setting);
             }
+            return settings;
         }
     }
 }
@@ -1,8 +1,9 @@
 package io.codeleaf.config.spec.impl;
 
-import io.codeleaf.common.behaviors.Cache;
-import io.codeleaf.common.behaviors.impl.UnlimitedCache;
-import io.codeleaf.config.impl.ConfigurationServiceLoader;
+import io.codeleaf.config.impl.CachePolicy;
+import io.codeleaf.config.impl.CacheStats;
+import io.codeleaf.config.impl.ExistenceCache;
+import io.codeleaf.config.impl.LoadingCache;
 import io.codeleaf.config.spec.Specification;
 import io.codeleaf.config.spec.SpecificationFormatException;
 import io.codeleaf.config.spec.SpecificationNotFoundException;
@@ -10,24 +11,48 @@ import io.codeleaf.config.spec.SpecificationProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.ObjectName;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Provides a Cache implementation for the <code>SpecificationProvider</code>.
+ * <p>
+ * Concurrent requests for the same specification are loaded only once: the first caller loads the specification,
+ * and the other callers wait for it. A failed load is thrown to all these callers, and is not cached.
+ * <p>
+ * When the policy has an existence time to live, the answers of the provider to {@link #hasSpecification(String)}
+ * are remembered, and a specification that failed to load because it wasn't found is remembered as absent: a
+ * repeated probe then costs a single map lookup. Use {@link #invalidate(String)} or {@link #invalidateAll()} to
+ * forget cached specifications and remembered answers.
+ * <p>
+ * When the policy refreshes entries, a specification older than the refresh duration is reloaded in the background
+ * while readers keep receiving the previous specification. If the reload fails, for example with an
+ * <code>IOException</code> or a <code>SpecificationFormatException</code>, the failure is logged and the last good
+ * specification is kept. Changes to the sources are then picked up without a restart, and readers never wait for
+ * the reload.
+ * <p>
+ * The statistics of the cache are available through {@link #getStats()}, and through JMX after
+ * {@link #registerMBean(String)}.
  *
  * @author tvburger@gmail.com
+ * @see CachePolicy#withRefreshAfterWrite(java.time.Duration, java.util.concurrent.Executor)
  * @since 0.1.0
  */
 public final class SpecificationCache implements SpecificationProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpecificationCache.class);
 
-    private final Cache<String, Specification> cache;
+    private final LoadingCache<String, Specification> cache;
+    private final ExistenceCache<String> existence;
     private final SpecificationProvider provider;
+    private volatile ObjectName mbeanName;
 
-    private SpecificationCache(Cache<String, Specification> cache, SpecificationProvider provider) {
+    private SpecificationCache(LoadingCache<String, Specification> cache, ExistenceCache<String> existence, SpecificationProvider provider) {
         this.cache = cache;
+        this.existence = existence;
         this.provider = provider;
     }
 
@@ -36,7 +61,7 @@ public final class SpecificationCache implements SpecificationProvider {
      */
     @Override
     public boolean hasSpecification(String specificationName) {
-        return cache.has(specificationName) || provider.hasSpecification(specificationName);
+        return cache.has(specificationName) || existence.exists(specificationName, provider::hasSpecification);
     }
 
     /**
@@ -44,27 +69,144 @@ public final class SpecificationCache implements SpecificationProvider {
      */
     @Override
     public Specification getSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
+        if (existence.isKnownAbsent(specificationName)) {
+            throw new SpecificationNotFoundException(specificationName);
+        }
+        try {
+            return cache.get(specificationName, this::loadSpecification);
+        } catch (SpecificationNotFoundException | IOException | SpecificationFormatException | RuntimeException cause) {
+            throw cause;
+        } catch (Exception cause) {
+            throw new IllegalStateException("Unexpected exception: " + cause, cause);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A cached specification is returned as a completed future without switching threads. Otherwise the
+     * specification is loaded with {@link SpecificationProvider#getSpecificationAsync(String, Executor)} of the
+     * provider, and concurrent requests for the same name share that load.
+     */
+    @Override
+    public CompletableFuture<Specification> getSpecificationAsync(String specificationName, Executor executor) {
+        Objects.requireNonNull(executor);
+        if (existence.isKnownAbsent(specificationName)) {
+            CompletableFuture<Specification> future = new CompletableFuture<>();
+            future.completeExceptionally(new SpecificationNotFoundException(specificationName));
+            return future;
+        }
+        return cache.getAsync(specificationName, name -> {
+            LOGGER.debug("Cache miss for: {}", name);
+            return provider.getSpecificationAsync(name, executor).whenComplete((specification, cause) -> {
+                if (cause == null) {
+                    existence.markPresent(name);
+                } else if (cause instanceof SpecificationNotFoundException || cause.getCause() instanceof SpecificationNotFoundException) {
+                    existence.markAbsent(name);
+                }
+            });
+        });
+    }
+
+    private Specification loadSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
+        LOGGER.debug("Cache miss for: {}", specificationName);
         Specification specification;
-        if (!cache.has(specificationName)) {
-            LOGGER.debug("Cache miss for: " + specificationName);
+        try {
             specification = provider.getSpecification(specificationName);
-            cache.put(specificationName, specification);
-        } else {
-            LOGGER.debug("Cache hit for: " + specificationName);
-            specification = cache.get(specificationName);
+        } catch (SpecificationNotFoundException cause) {
+            existence.markAbsent(specificationName);
+            throw cause;
         }
+        existence.markPresent(specificationName);
         return specification;
     }
 
     /**
-     * Creates a new instance using a <code>UnlimitedCache</code> and loads cache misses from the specified provider.
+     * Removes the cached specification with the specified name, and forgets whether it exists.
+     *
+     * @param specificationName the name of the specification
+     */
+    public void invalidate(String specificationName) {
+        cache.invalidate(specificationName);
+        existence.invalidate(specificationName);
+    }
+
+    /**
+     * Removes all cached specifications, and forgets whether they exist.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        existence.invalidateAll();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics
+     * @see CacheStats
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Registers an MXBean reporting the statistics of this cache with the platform MBean server, under the object
+     * name <code>io.codeleaf.config:type=SpecificationCache,name=</code><i>name</i>. Failing to register is logged as a warning.
+     *
+     * @param name the name of this cache
+     * @return <code>true</code> if the MXBean is registered, otherwise <code>false</code>
+     * @throws NullPointerException if name is <code>null</code>
+     */
+    public synchronized boolean registerMBean(String name) {
+        Objects.requireNonNull(name);
+        unregisterMBean();
+        mbeanName = CacheStats.registerMBean("io.codeleaf.config:type=SpecificationCache,name=" + ObjectName.quote(name), this::getStats);
+        return mbeanName != null;
+    }
+
+    /**
+     * Unregisters the MXBean registered with {@link #registerMBean(String)}, if any.
+     */
+    public synchronized void unregisterMBean() {
+        CacheStats.unregisterMBean(mbeanName);
+        mbeanName = null;
+    }
+
+    /**
+     * Creates a new instance using a <code>LoadingCache</code> and loads cache misses from the specified provider.
      *
      * @param provider the specification provider to load cache misses
      * @return the new instance
-     * @see UnlimitedCache
+     * @see LoadingCache
      */
     public static SpecificationCache create(SpecificationProvider provider) {
         Objects.requireNonNull(provider);
-        return new SpecificationCache(new UnlimitedCache<>(), provider);
+        return new SpecificationCache(LoadingCache.create(), ExistenceCache.create(CachePolicy.unlimited()), provider);
+    }
+
+    /**
+     * Creates a new instance using a <code>LoadingCache</code> with the specified policy, and loads cache misses from
+     * the specified provider. The weight of a specification is its number of settings. Evicted specifications are
+     * loaded again from the provider on their next access. The existence answers of the provider are remembered for
+     * the existence time to live of the policy.
+     *
+     * @param provider the specification provider to load cache misses
+     * @param policy   the policy of the cache
+     * @return the new instance
+     * @throws NullPointerException if provider or policy is <code>null</code>
+     * @see CachePolicy
+     */
+    public static SpecificationCache create(SpecificationProvider provider, CachePolicy policy) {
+        Objects.requireNonNull(provider);
+        return new SpecificationCache(LoadingCache.create(policy, SpecificationCache::countSettings), ExistenceCache.create(policy), provider);
+    }
+
+    private static long countSettings(String specificationName, Specification specification) {
+        if (specification instanceof CompactSpecification) {
+            return ((CompactSpecification) specification).size();
+        }
+        long[] count = new long[1];
+        specification.forEachSetting((field, value) -> count[0]++);
+        return count[0];
     }
 }
@@ -9,10 +9,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ServiceLoader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 /**
  * Implements a specification provider using the java service loader mechanism.
+ * <p>
+ * The loaders are loaded once, the first time they are needed, into an immutable snapshot ordered by
+ * {@link SpecificationLoader#getPriority()}, highest first. The loader that contains a specification is resolved once
+ * per name and remembered, so later requests for that name load from that loader without asking any loader whether it
+ * contains the specification. The remembered loader sticks until {@link #reload()}, even when a loader with a higher
+ * priority gains the specification later; it is only forgotten when it fails to find the specification, or when
+ * {@link #hasSpecification(String)} finds that it no longer contains it. No lock is held while asking or loading, so
+ * specifications with different names load in parallel. Use {@link #reload()} when loaders have been added to the
+ * class path, or when specifications have been added to a loader with a higher priority.
  *
  * @author tvburger@gmail.com
  * @since 0.1.0
@@ -22,41 +36,148 @@ public final class SpecificationServiceLoader implements SpecificationProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpecificationServiceLoader.class);
 
     private final ServiceLoader<SpecificationLoader> serviceLoader;
+    private volatile Registry registry;
 
     private SpecificationServiceLoader(ServiceLoader<SpecificationLoader> serviceLoader) {
         this.serviceLoader = serviceLoader;
     }
 
     /**
-     * {@inheritDoc}
+     * Returns the loaders of the current snapshot, highest priority first.
+     *
+     * @return the loaders
      */
-    @Override
-    public boolean hasSpecification(String specificationName) {
+    public List<SpecificationLoader> getLoaders() {
+        return getRegistry().loaders;
+    }
+
+    /**
+     * Reloads the loaders from the service loader into a new snapshot, and forgets which loader contains which
+     * specification. Requests that are in progress complete with the previous snapshot.
+     *
+     * @see ServiceLoader#reload()
+     */
+    public void reload() {
         synchronized (serviceLoader) {
-            for (SpecificationLoader loader : serviceLoader) {
-                if (loader.hasSpecification(specificationName)) {
-                    return true;
+            serviceLoader.reload();
+            registry = loadRegistry();
+        }
+    }
+
+    private Registry getRegistry() {
+        Registry current = registry;
+        if (current == null) {
+            synchronized (serviceLoader) {
+                current = registry;
+                if (current == null) {
+                    current = loadRegistry();
+                    registry = current;
                 }
             }
         }
-        return false;
+        return current;
+    }
+
+    private Registry loadRegistry() {
+        List<SpecificationLoader> loaders = new ArrayList<>();
+        for (SpecificationLoader loader : serviceLoader) {
+            loaders.add(loader);
+        }
+        loaders.sort(Comparator.comparingInt(SpecificationLoader::getPriority).reversed());
+        LOGGER.debug("Loaded {} specification loaders", loaders.size());
+        return new Registry(Collections.unmodifiableList(loaders));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSpecification(String specificationName) {
+        return getRegistry().findLoader(specificationName, true) != null;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * When the remembered loader fails to find the specification, the loaders are asked once more.
      */
     @Override
     public Specification getSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
-        synchronized (serviceLoader) {
-            for (SpecificationLoader loader : serviceLoader) {
-                if (loader.hasSpecification(specificationName)) {
-                    LOGGER.debug("Loading specification: " + specificationName);
-                    return loader.loadSpecification(specificationName);
-                }
+        Registry current = getRegistry();
+        boolean routed = current.isRouted(specificationName);
+        try {
+            return loadSpecification(current, specificationName);
+        } catch (SpecificationNotFoundException cause) {
+            if (!routed) {
+                throw cause;
             }
-            LOGGER.debug("Specification not found: " + specificationName);
+            return loadSpecification(current, specificationName);
+        }
+    }
+
+    private static Specification loadSpecification(Registry current, String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
+        SpecificationLoader loader = current.findLoader(specificationName, false);
+        if (loader == null) {
+            LOGGER.debug("Specification not found: {}", specificationName);
             throw new SpecificationNotFoundException(specificationName);
         }
+        LOGGER.debug("Loading specification: {}", specificationName);
+        try {
+            return loader.loadSpecification(specificationName);
+        } catch (SpecificationNotFoundException cause) {
+            current.forget(specificationName, loader);
+            throw cause;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Resolves the loader and loads the specification in a single task on executor. The loader is asked with
+     * {@link SpecificationLoader#loadSpecificationAsync(String, Executor)} to do its blocking work in that same task,
+     * so the load doesn't hand over to another thread. When the remembered loader fails to find the specification,
+     * the loaders are asked once more.
+     */
+    @Override
+    public CompletableFuture<Specification> getSpecificationAsync(String specificationName, Executor executor) {
+        Objects.requireNonNull(executor);
+        Registry current = getRegistry();
+        CompletableFuture<Specification> future = new CompletableFuture<>();
+        executor.execute(() -> loadSpecificationAsync(current, specificationName, future, current.isRouted(specificationName)));
+        return future;
+    }
+
+    private static void loadSpecificationAsync(Registry current, String specificationName, CompletableFuture<Specification> future, boolean retry) {
+        SpecificationLoader loader;
+        CompletableFuture<Specification> loading;
+        try {
+            loader = current.findLoader(specificationName, false);
+            if (loader == null) {
+                LOGGER.debug("Specification not found: {}", specificationName);
+                future.completeExceptionally(new SpecificationNotFoundException(specificationName));
+                return;
+            }
+            LOGGER.debug("Loading specification: {}", specificationName);
+            loading = loader.loadSpecificationAsync(specificationName, Runnable::run);
+        } catch (RuntimeException cause) {
+            future.completeExceptionally(cause);
+            return;
+        }
+        loading.whenComplete((specification, cause) -> {
+            if (cause == null) {
+                future.complete(specification);
+                return;
+            }
+            Throwable failure = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+            if (failure instanceof SpecificationNotFoundException) {
+                current.forget(specificationName, loader);
+                if (retry) {
+                    loadSpecificationAsync(current, specificationName, future, false);
+                    return;
+                }
+            }
+            future.completeExceptionally(failure);
+        });
     }
 
     /**
@@ -68,4 +189,39 @@ public final class SpecificationServiceLoader implements SpecificationProvider {
     public static SpecificationServiceLoader create() {
         return new SpecificationServiceLoader(ServiceLoader.load(SpecificationLoader.class));
     }
+
+    private static final class Registry {
+
+        private final List<SpecificationLoader> loaders;
+        private final ConcurrentMap<String, SpecificationLoader> routes = new ConcurrentHashMap<>();
+
+        private Registry(List<SpecificationLoader> loaders) {
+            this.loaders = loaders;
+        }
+
+        private SpecificationLoader findLoader(String specificationName, boolean verifyRoute) {
+            SpecificationLoader loader = routes.get(specificationName);
+            if (loader != null) {
+                if (!verifyRoute || loader.hasSpecification(specificationName)) {
+                    return loader;
+                }
+                forget(specificationName, loader);
+            }
+            for (SpecificationLoader candidate : loaders) {
+                if (candidate.hasSpecification(specificationName)) {
+                    routes.put(specificationName, candidate);
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        private boolean isRouted(String specificationName) {
+            return routes.containsKey(specificationName);
+        }
+
+        private void forget(String specificationName, SpecificationLoader loader) {
+            routes.remove(specificationName, loader);
+        }
+    }
 }
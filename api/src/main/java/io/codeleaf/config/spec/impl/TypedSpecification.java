@@ -0,0 +1,133 @@
+package io.codeleaf.config.spec.impl;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.InvalidSettingException;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.util.SettingConverter;
+import io.codeleaf.config.util.SettingConverters;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Implements a decorator that memoizes typed setting values of an immutable specification.
+ * <p>
+ * Each combination of field and type is converted only once, using the converter from {@link SettingConverters};
+ * later reads return the cached value without parsing. The cached values of a type are tied to the converter that
+ * produced them: when another converter is registered for the type, the values are converted again. The utility
+ * methods of {@link io.codeleaf.config.util.Specifications}, like <code>parseInt</code>, use this cache when they are
+ * passed a typed specification.
+ * <p>
+ * A subtree of a typed specification is typed as well, and shares the cache of the specification it was taken from.
+ *
+ * @see SettingConverters
+ * @since 0.10.0
+ */
+public final class TypedSpecification extends DecoratedSpecification {
+
+    private static final Object NULL = new Object();
+
+    private final FieldPath fieldPrefix;
+    private final ConcurrentMap<Class<?>, TypedValues> typedValues;
+
+    private TypedSpecification(Specification specification, FieldPath fieldPrefix, ConcurrentMap<Class<?>, TypedValues> typedValues) {
+        super(specification);
+        this.fieldPrefix = fieldPrefix;
+        this.typedValues = typedValues;
+    }
+
+    /**
+     * Returns the value of the setting specified by field, converted into typeClass.
+     *
+     * @param typeClass the type class to convert the value into
+     * @param field     the field identifying the setting
+     * @param <T>       the type to convert into
+     * @return the converted value
+     * @throws SettingNotFoundException if the setting is not present in this specification
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is available for typeClass
+     */
+    public <T> T getTypedValue(Class<T> typeClass, String... field) throws SettingNotFoundException, InvalidSettingException {
+        return getTypedValue(typeClass, Arrays.asList(field));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, converted into typeClass.
+     *
+     * @param typeClass the type class to convert the value into
+     * @param field     the field identifying the setting
+     * @param <T>       the type to convert into
+     * @return the converted value
+     * @throws SettingNotFoundException if the setting is not present in this specification
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is available for typeClass
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getTypedValue(Class<T> typeClass, List<String> field) throws SettingNotFoundException, InvalidSettingException {
+        SettingConverter<T> converter = SettingConverters.get(typeClass);
+        TypedValues values = typedValues.get(typeClass);
+        if (values == null || values.converter != converter) {
+            values = typedValues.compute(typeClass, (type, current) ->
+                    current != null && current.converter == converter ? current : new TypedValues(converter));
+        }
+        List<String> key = fieldPrefix.isEmpty() ? field : fieldPrefix.child(field);
+        Object value = values.values.get(key);
+        if (value == null) {
+            value = SettingConverters.convert(this, typeClass, field);
+            values.values.putIfAbsent(FieldPath.of(key), value == null ? NULL : value);
+        }
+        return value == NULL ? null : (T) value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The subtree is a typed specification that shares the cache of this specification.
+     */
+    @Override
+    public TypedSpecification subtree(String... fieldPrefix) {
+        return subtree(Arrays.asList(fieldPrefix));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The subtree is a typed specification that shares the cache of this specification.
+     */
+    @Override
+    public TypedSpecification subtree(List<String> fieldPrefix) {
+        Objects.requireNonNull(fieldPrefix);
+        return fieldPrefix.isEmpty()
+                ? this
+                : new TypedSpecification(specification.subtree(fieldPrefix), this.fieldPrefix.child(fieldPrefix), typedValues);
+    }
+
+    /**
+     * Returns a typed specification for the specified specification. When the specification is already typed,
+     * it is returned as is.
+     *
+     * @param specification the specification to decorate, must be immutable
+     * @return the typed specification
+     * @throws NullPointerException if specification is <code>null</code>
+     */
+    public static TypedSpecification create(Specification specification) {
+        Objects.requireNonNull(specification);
+        return specification instanceof TypedSpecification
+                ? (TypedSpecification) specification
+                : new TypedSpecification(specification, FieldPath.ROOT, new ConcurrentHashMap<>());
+    }
+
+    private static final class TypedValues {
+
+        private final SettingConverter<?> converter;
+        private final ConcurrentMap<List<String>, Object> values = new ConcurrentHashMap<>();
+
+        private TypedValues(SettingConverter<?> converter) {
+            this.converter = converter;
+        }
+    }
+}
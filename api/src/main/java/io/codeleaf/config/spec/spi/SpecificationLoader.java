@@ -5,6 +5,9 @@ import io.codeleaf.config.spec.SpecificationFormatException;
 import io.codeleaf.config.spec.SpecificationNotFoundException;
 
 import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The service provider interface to introduce new specification loaders.
@@ -22,6 +25,30 @@ public interface SpecificationLoader {
      */
     Specification loadSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException;
 
+    /**
+     * Loads the specification with the given name without blocking the calling thread. The default implementation
+     * is only a wrapper: it calls {@link #loadSpecification(String)} on executor, so the read still blocks a thread of
+     * executor. Loaders that can read without blocking should override this method.
+     *
+     * @param specificationName the name of the specification to load
+     * @param executor          the executor for blocking work
+     * @return the future of the loaded specification, completing exceptionally with the exceptions of
+     * <code>loadSpecification</code>
+     * @throws NullPointerException if executor is <code>null</code>
+     */
+    default CompletableFuture<Specification> loadSpecificationAsync(String specificationName, Executor executor) {
+        Objects.requireNonNull(executor);
+        CompletableFuture<Specification> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(loadSpecification(specificationName));
+            } catch (Exception cause) {
+                future.completeExceptionally(cause);
+            }
+        });
+        return future;
+    }
+
     /**
      * Returns <code>true</code> if this loader contains a specification with the given name, otherwise <code>false</code>
      *
@@ -30,4 +57,15 @@ public interface SpecificationLoader {
      */
     boolean hasSpecification(String specificationName);
 
+    /**
+     * Returns the priority of this loader. When multiple loaders contain a specification with the same name, the
+     * loader with the highest priority is used; loaders with equal priority keep their discovery order. The default
+     * priority is 0.
+     *
+     * @return the priority of this loader
+     */
+    default int getPriority() {
+        return 0;
+    }
+
 }
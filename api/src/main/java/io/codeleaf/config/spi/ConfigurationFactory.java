@@ -5,6 +5,9 @@ import io.codeleaf.config.ConfigurationNotFoundException;
 import io.codeleaf.config.spec.InvalidSpecificationException;
 import io.codeleaf.config.spec.Specification;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * The service provider interface for introducing new configuration types.
  *
@@ -55,4 +58,14 @@ public interface ConfigurationFactory {
      */
     <T extends Configuration> T createDefaultConfiguration(Class<T> configurationTypeClass) throws ConfigurationNotFoundException;
 
+    /**
+     * Returns the configuration types this factory supports, if it can enumerate them. The default implementation
+     * returns an empty set, in which case the factory is only used for types that are requested explicitly.
+     *
+     * @return the supported configuration types
+     */
+    default Set<Class<? extends Configuration>> getSupportedConfigurations() {
+        return Collections.emptySet();
+    }
+
 }
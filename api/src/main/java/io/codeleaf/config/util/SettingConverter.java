@@ -0,0 +1,23 @@
+package io.codeleaf.config.util;
+
+/**
+ * Converts the value of a setting into a specific type.
+ *
+ * @param <T> the type to convert into
+ * @see SettingConverters
+ * @since 0.10.0
+ */
+@FunctionalInterface
+public interface SettingConverter<T> {
+
+    /**
+     * Converts the value of a setting.
+     *
+     * @param value the value of the setting, may be <code>null</code>
+     * @return the converted value
+     * @throws IllegalArgumentException if the value can't be converted
+     * @throws ClassCastException       if the value has a type that can't be converted
+     */
+    T convert(Object value);
+
+}
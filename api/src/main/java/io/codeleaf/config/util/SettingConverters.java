@@ -0,0 +1,222 @@
+package io.codeleaf.config.util;
+
+import io.codeleaf.common.utils.StringEncoder;
+import io.codeleaf.config.spec.InvalidSettingException;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides the registry of setting converters, used to convert setting values into typed values.
+ * <p>
+ * Converters are registered for <code>String</code>, <code>Integer</code>, <code>Long</code>, <code>Double</code>,
+ * <code>Boolean</code>, <code>BigDecimal</code>, <code>Class</code>, <code>List</code>, <code>Set</code>,
+ * <code>Duration</code>, <code>URI</code> and <code>InetSocketAddress</code>. Primitive types use the converter of
+ * their wrapper type, and enums are converted by name. Additional converters can be registered using
+ * {@link #register(Class, SettingConverter)}.
+ *
+ * @see SettingConverter
+ * @see io.codeleaf.config.spec.impl.TypedSpecification
+ * @since 0.10.0
+ */
+public final class SettingConverters {
+
+    private static final ConcurrentMap<Class<?>, SettingConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    static {
+        register(String.class, value -> value == null ? null : Objects.toString(value));
+        register(Integer.class, value -> value instanceof Number
+                ? new BigDecimal(value.toString()).intValueExact()
+                : Integer.parseInt(requireString(value)));
+        register(Long.class, value -> value instanceof Number
+                ? new BigDecimal(value.toString()).longValueExact()
+                : Long.parseLong(requireString(value)));
+        register(Double.class, value -> value instanceof Number
+                ? ((Number) value).doubleValue()
+                : Double.parseDouble(requireString(value)));
+        register(BigDecimal.class, value -> value instanceof BigDecimal
+                ? (BigDecimal) value
+                : new BigDecimal(requireString(value).trim()));
+        register(Boolean.class, SettingConverters::toBoolean);
+        register(Class.class, SettingConverters::toClass);
+        register(List.class, value -> Collections.unmodifiableList(
+                StringEncoder.decodeList(requireString(value))));
+        register(Set.class, value -> Collections.unmodifiableSet(new LinkedHashSet<>(
+                StringEncoder.decodeList(requireString(value)))));
+        register(Duration.class, value -> value instanceof Number
+                ? Duration.ofMillis(((Number) value).longValue())
+                : Duration.parse(requireString(value)));
+        register(URI.class, value -> URI.create(requireString(value)));
+        register(InetSocketAddress.class, SettingConverters::toSocketAddress);
+    }
+
+    private SettingConverters() {
+    }
+
+    /**
+     * Registers a converter for the specified type, replacing any converter that was registered before. Values that a
+     * {@link io.codeleaf.config.spec.impl.TypedSpecification} converted with the replaced converter are converted
+     * again with the new converter on their next read.
+     *
+     * @param typeClass the type class to register the converter for
+     * @param converter the converter
+     * @param <T>       the type to convert into
+     * @throws NullPointerException     if typeClass or converter is <code>null</code>
+     * @throws IllegalArgumentException if typeClass is a primitive type
+     */
+    public static <T> void register(Class<T> typeClass, SettingConverter<? extends T> converter) {
+        Objects.requireNonNull(typeClass);
+        Objects.requireNonNull(converter);
+        if (typeClass.isPrimitive()) {
+            throw new IllegalArgumentException("Register the converter for the wrapper type of: " + typeClass);
+        }
+        CONVERTERS.put(typeClass, converter);
+    }
+
+    /**
+     * Returns <code>true</code> if a value can be converted into the specified type.
+     *
+     * @param typeClass the type class to convert into
+     * @return <code>true</code> if a converter is available for typeClass, otherwise <code>false</code>
+     */
+    public static boolean supports(Class<?> typeClass) {
+        Class<?> wrapperClass = wrap(typeClass);
+        return wrapperClass.isEnum() || CONVERTERS.containsKey(wrapperClass);
+    }
+
+    /**
+     * Returns the converter for the specified type.
+     *
+     * @param typeClass the type class to convert into
+     * @param <T>       the type to convert into
+     * @return the converter
+     * @throws IllegalArgumentException if no converter is available for typeClass
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> SettingConverter<T> get(Class<T> typeClass) {
+        Class<?> wrapperClass = wrap(typeClass);
+        SettingConverter<?> converter = CONVERTERS.get(wrapperClass);
+        if (converter == null) {
+            if (!wrapperClass.isEnum()) {
+                throw new IllegalArgumentException("No converter registered for: " + typeClass.getName());
+            }
+            converter = CONVERTERS.computeIfAbsent(wrapperClass,
+                    enumClass -> value -> Enum.valueOf((Class<Enum>) enumClass, requireString(value)));
+        }
+        return (SettingConverter<T>) converter;
+    }
+
+    /**
+     * Converts the value of the setting identified by field into the specified type.
+     *
+     * @param specification the specification containing the setting
+     * @param typeClass     the type class to convert into
+     * @param field         the field identifying the setting
+     * @param <T>           the type to convert into
+     * @return the converted value
+     * @throws SettingNotFoundException if the setting is not present in the specification
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is available for typeClass
+     */
+    public static <T> T convert(Specification specification, Class<T> typeClass, List<String> field) throws SettingNotFoundException, InvalidSettingException {
+        SettingConverter<T> converter = get(typeClass);
+        return convert(specification, typeClass, converter, specification.getSetting(field));
+    }
+
+    /**
+     * Converts the value of the specified setting into the specified type.
+     *
+     * @param specification the specification containing the setting
+     * @param typeClass     the type class to convert into
+     * @param setting       the setting to convert the value of
+     * @param <T>           the type to convert into
+     * @return the converted value
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is available for typeClass
+     */
+    public static <T> T convert(Specification specification, Class<T> typeClass, Specification.Setting setting) throws InvalidSettingException {
+        return convert(specification, typeClass, get(typeClass), setting);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T convert(Specification specification, Class<T> typeClass, SettingConverter<T> converter, Specification.Setting setting) throws InvalidSettingException {
+        try {
+            return (T) wrap(typeClass).cast(converter.convert(setting.getValue()));
+        } catch (IllegalArgumentException | ClassCastException | ArithmeticException cause) {
+            throw new InvalidSettingException(specification, setting, cause);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> typeClass) {
+        if (!typeClass.isPrimitive()) {
+            return typeClass;
+        }
+        if (typeClass == int.class) {
+            return Integer.class;
+        } else if (typeClass == long.class) {
+            return Long.class;
+        } else if (typeClass == double.class) {
+            return Double.class;
+        } else if (typeClass == boolean.class) {
+            return Boolean.class;
+        } else if (typeClass == float.class) {
+            return Float.class;
+        } else if (typeClass == short.class) {
+            return Short.class;
+        } else if (typeClass == byte.class) {
+            return Byte.class;
+        } else if (typeClass == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+    private static String requireString(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("No value specified!");
+        }
+        return Objects.toString(value);
+    }
+
+    private static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        switch (requireString(value)) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Not a boolean: " + value);
+        }
+    }
+
+    private static Class<?> toClass(Object value) {
+        try {
+            return Class.forName(requireString(value));
+        } catch (ClassNotFoundException cause) {
+            throw new IllegalArgumentException("Class not found: " + value, cause);
+        }
+    }
+
+    private static InetSocketAddress toSocketAddress(Object value) {
+        String address = requireString(value);
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Not a host:port address: " + address);
+        }
+        String host = address.substring(0, separator);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        return InetSocketAddress.createUnresolved(host, Integer.parseInt(address.substring(separator + 1)));
+    }
+}
@@ -1,5 +1,7 @@
 package io.codeleaf.config.util;
 
+import io.codeleaf.config.spec.FieldPath;
+
 import java.util.List;
 
 /**
@@ -24,6 +26,12 @@ public final class Settings {
     }
 
     public static boolean sameField(List<String> field1, List<String> field2) {
+        if (field1 == field2) {
+            return true;
+        }
+        if (field1 instanceof FieldPath && field2 instanceof FieldPath) {
+            return field1.equals(field2);
+        }
         if (field1.size() != field2.size()) {
             return false;
         }
@@ -1,14 +1,15 @@
 package io.codeleaf.config.util;
 
-import io.codeleaf.common.utils.StringEncoder;
 import io.codeleaf.config.Configuration;
 import io.codeleaf.config.ConfigurationNotFoundException;
 import io.codeleaf.config.ConfigurationProvider;
+import io.codeleaf.config.spec.FieldPath;
 import io.codeleaf.config.spec.InvalidSettingException;
 import io.codeleaf.config.spec.InvalidSpecificationException;
 import io.codeleaf.config.spec.SettingNotFoundException;
 import io.codeleaf.config.spec.Specification;
-import io.codeleaf.config.spec.impl.MapSpecification;
+import io.codeleaf.config.spec.impl.CompactSpecification;
+import io.codeleaf.config.spec.impl.TypedSpecification;
 
 import java.util.*;
 
@@ -35,11 +36,7 @@ public final class Specifications {
     }
 
     public static int parseInt(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
-        try {
-            return Integer.parseInt(specification.getValue(String.class, field));
-        } catch (NumberFormatException cause) {
-            throw new InvalidSettingException(specification, specification.getSetting(field));
-        }
+        return parseValue(specification, Integer.class, field);
     }
 
     public static boolean parseBoolean(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
@@ -47,49 +44,25 @@ public final class Specifications {
     }
 
     public static boolean parseBoolean(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
-        try {
-            boolean bool;
-            String value = specification.getValue(String.class, field);
-            switch (value) {
-                case "true":
-                    bool = true;
-                    break;
-                case "false":
-                    bool = false;
-                    break;
-                default:
-                    throw new InvalidSettingException(specification, specification.getSetting(field));
-            }
-            return bool;
-        } catch (NumberFormatException cause) {
-            throw new InvalidSettingException(specification, specification.getSetting(field));
-        }
+        return parseValue(specification, Boolean.class, field);
     }
 
     public static Set<String> parseSet(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
         return parseSet(specification, Arrays.asList(field));
     }
 
+    @SuppressWarnings("unchecked")
     public static Set<String> parseSet(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
-        try {
-            return Collections.unmodifiableSet(new LinkedHashSet<>(
-                    StringEncoder.decodeList(
-                            Specifications.parseString(specification, field))));
-        } catch (IllegalArgumentException cause) {
-            throw new InvalidSettingException(specification, specification.getSetting(field), cause);
-        }
+        return (Set<String>) parseValue(specification, Set.class, field);
     }
 
     public static List<String> parseList(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
         return parseList(specification, Arrays.asList(field));
     }
 
+    @SuppressWarnings("unchecked")
     public static List<String> parseList(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
-        try {
-            return Collections.unmodifiableList(StringEncoder.decodeList(Specifications.parseString(specification, field)));
-        } catch (IllegalArgumentException cause) {
-            throw new InvalidSettingException(specification, specification.getSetting(field), cause);
-        }
+        return (List<String>) parseValue(specification, List.class, field);
     }
 
     public static Class<?> parseClass(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
@@ -97,11 +70,7 @@ public final class Specifications {
     }
 
     public static Class<?> parseClass(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
-        try {
-            return Class.forName(parseString(specification, field));
-        } catch (ClassNotFoundException cause) {
-            throw new InvalidSettingException(specification, specification.getSetting(field), cause);
-        }
+        return parseValue(specification, Class.class, field);
     }
 
     public static <T> Class<? extends T> parseClass(Specification specification, Class<T> baseClass, String... field) throws SettingNotFoundException, InvalidSettingException {
@@ -118,18 +87,156 @@ public final class Specifications {
         return (Class<? extends T>) parsedClass;
     }
 
+    public static <T> T parseValue(Specification specification, Class<T> typeClass, String... field) throws SettingNotFoundException, InvalidSettingException {
+        return parseValue(specification, typeClass, Arrays.asList(field));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, converted into typeClass using the registered
+     * {@link SettingConverter}. When the specification is a {@link TypedSpecification}, the converted value is
+     * cached in it, so each field is converted only once per type.
+     *
+     * @param specification the specification containing the setting
+     * @param typeClass     the type class to convert the value into
+     * @param field         the field identifying the setting
+     * @param <T>           the type to convert into
+     * @return the converted value
+     * @throws SettingNotFoundException if the setting is not present in the specification
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is registered for typeClass
+     * @see SettingConverters
+     */
+    public static <T> T parseValue(Specification specification, Class<T> typeClass, List<String> field) throws SettingNotFoundException, InvalidSettingException {
+        return specification instanceof TypedSpecification
+                ? ((TypedSpecification) specification).getTypedValue(typeClass, field)
+                : SettingConverters.convert(specification, typeClass, field);
+    }
+
+    /**
+     * Returns a specification that caches the typed values that are parsed from it. Keep a reference to the returned
+     * specification and parse from it, to convert each setting only once.
+     *
+     * @param specification the specification to decorate, must be immutable
+     * @return the typed specification
+     * @throws NullPointerException if specification is <code>null</code>
+     * @see TypedSpecification
+     */
+    public static TypedSpecification typed(Specification specification) {
+        return TypedSpecification.create(specification);
+    }
+
+    public static Optional<String> findString(Specification specification, String... field) {
+        return findString(specification, Arrays.asList(field));
+    }
+
+    public static Optional<String> findString(Specification specification, List<String> field) {
+        Object value = specification.getValueOrDefault(field, null);
+        return value == null ? Optional.empty() : Optional.of(Objects.toString(value));
+    }
+
+    public static OptionalInt findInt(Specification specification, String... field) throws InvalidSettingException {
+        return findInt(specification, Arrays.asList(field));
+    }
+
+    public static OptionalInt findInt(Specification specification, List<String> field) throws InvalidSettingException {
+        Optional<Integer> value = findValue(specification, Integer.class, field);
+        return value.isPresent() ? OptionalInt.of(value.get()) : OptionalInt.empty();
+    }
+
+    public static OptionalLong findLong(Specification specification, String... field) throws InvalidSettingException {
+        return findLong(specification, Arrays.asList(field));
+    }
+
+    public static OptionalLong findLong(Specification specification, List<String> field) throws InvalidSettingException {
+        Optional<Long> value = findValue(specification, Long.class, field);
+        return value.isPresent() ? OptionalLong.of(value.get()) : OptionalLong.empty();
+    }
+
+    public static Optional<Boolean> findBoolean(Specification specification, String... field) throws InvalidSettingException {
+        return findBoolean(specification, Arrays.asList(field));
+    }
+
+    public static Optional<Boolean> findBoolean(Specification specification, List<String> field) throws InvalidSettingException {
+        return findValue(specification, Boolean.class, field);
+    }
+
+    public static <T> Optional<T> findValue(Specification specification, Class<T> typeClass, String... field) throws InvalidSettingException {
+        return findValue(specification, typeClass, Arrays.asList(field));
+    }
+
+    /**
+     * Returns the value of the setting specified by field, converted into typeClass, or an empty optional if the
+     * setting is not present or its value is <code>null</code>. A missing setting costs a single lookup, without
+     * throwing an exception.
+     *
+     * @param specification the specification containing the setting
+     * @param typeClass     the type class to convert the value into
+     * @param field         the field identifying the setting
+     * @param <T>           the type to convert into
+     * @return the converted value, or an empty optional
+     * @throws InvalidSettingException  if the value can't be converted into typeClass
+     * @throws IllegalArgumentException if no converter is registered for typeClass
+     * @see #parseValue(Specification, Class, List)
+     */
+    public static <T> Optional<T> findValue(Specification specification, Class<T> typeClass, List<String> field) throws InvalidSettingException {
+        Optional<Specification.Setting> setting = specification.findSetting(field);
+        if (!setting.isPresent() || setting.get().getValue() == null) {
+            return Optional.empty();
+        }
+        if (!(specification instanceof TypedSpecification)) {
+            return Optional.ofNullable(SettingConverters.convert(specification, typeClass, setting.get()));
+        }
+        try {
+            return Optional.ofNullable(((TypedSpecification) specification).getTypedValue(typeClass, field));
+        } catch (SettingNotFoundException cause) {
+            return Optional.empty();
+        }
+    }
+
     public static Specification parseSpecification(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
         return parseSpecification(specification, Arrays.asList(field));
     }
 
+    /**
+     * Returns the settings below field as a specification. The result is a view, see
+     * {@link Specification#subtree(List)}: it doesn't copy any settings, and it keeps the whole specification
+     * reachable for as long as the view is referenced. Use {@link #copySpecification(Specification, List)} for a
+     * specification that is kept longer than the specification it was parsed from.
+     *
+     * @param specification the specification containing the settings
+     * @param field         the field prefix of the settings
+     * @return the view on the settings below field
+     * @throws SettingNotFoundException if the setting is not present
+     * @throws InvalidSettingException  if the settings can't be parsed into a specification
+     */
     public static Specification parseSpecification(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
         try {
-            return MapSpecification.create(specification, field);
+            return specification.subtree(field);
         } catch (ClassCastException | IllegalArgumentException cause) {
             throw new InvalidSettingException(specification, specification.getSetting(field), cause);
         }
     }
 
+    public static Specification copySpecification(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
+        return copySpecification(specification, Arrays.asList(field));
+    }
+
+    /**
+     * Returns a compact copy of the settings below field, that doesn't reference the specification it was copied
+     * from.
+     *
+     * @param specification the specification containing the settings
+     * @param field         the field prefix of the settings
+     * @return the copy of the settings below field
+     * @throws SettingNotFoundException if the setting is not present
+     * @throws InvalidSettingException  if the settings can't be parsed into a specification
+     * @see #parseSpecification(Specification, List)
+     * @see CompactSpecification
+     */
+    public static Specification copySpecification(Specification specification, List<String> field) throws SettingNotFoundException, InvalidSettingException {
+        return CompactSpecification.create(parseSpecification(specification, field));
+    }
+
     public static Configuration parseConfiguration(Specification specification, String... field) throws SettingNotFoundException, InvalidSettingException {
         return parseConfiguration(specification, Arrays.asList(field));
     }
@@ -140,7 +247,7 @@ public final class Specifications {
                     parseClass(specification, Configuration.class, add(field, "type")),
                     parseSpecification(specification, add(field, "settings")));
         } catch (ConfigurationNotFoundException | InvalidSpecificationException cause) {
-            Specification.Setting setting = new Specification.Setting(field, MapSpecification.create(specification, field));
+            Specification.Setting setting = new Specification.Setting(field, specification.subtree(field));
             if (((Specification) setting.getValue()).iterator().hasNext()) {
                 throw new InvalidSettingException(specification, setting, cause);
             } else {
@@ -160,7 +267,7 @@ public final class Specifications {
                     parseSpecification(specification, add(field, "settings")),
                     context);
         } catch (ConfigurationNotFoundException | InvalidSpecificationException cause) {
-            Specification.Setting setting = new Specification.Setting(field, MapSpecification.create(specification, field));
+            Specification.Setting setting = new Specification.Setting(field, specification.subtree(field));
             if (((Specification) setting.getValue()).iterator().hasNext()) {
                 throw new InvalidSettingException(specification, setting, cause);
             } else {
@@ -169,22 +276,31 @@ public final class Specifications {
         }
     }
 
+    /**
+     * Returns a read-only copy of the specification that uses a compact memory layout. Use this for large
+     * specifications that are kept for a long time.
+     *
+     * @param specification the specification to compact
+     * @return the compacted specification
+     * @throws NullPointerException if specification is <code>null</code>
+     * @see CompactSpecification
+     */
+    public static Specification compact(Specification specification) {
+        return CompactSpecification.create(specification);
+    }
+
     public static String toString(Specification specification) {
         if (specification == null) {
             return "null";
         }
         StringBuilder sb = new StringBuilder(specification.getClass().getName()).append("{");
-        for (Specification.Setting setting : specification) {
-            sb.append(Settings.toString(setting.getField())).append('=').append(setting.getValue());
-        }
+        specification.forEachSetting((field, value) -> sb.append(Settings.toString(field)).append('=').append(value));
         sb.append('}');
         return sb.toString();
     }
 
     private static List<String> add(List<String> list, String value) {
-        List<String> newList = new ArrayList<>(list);
-        newList.add(value);
-        return newList;
+        return FieldPath.of(list).child(value);
     }
 
     private Specifications() {
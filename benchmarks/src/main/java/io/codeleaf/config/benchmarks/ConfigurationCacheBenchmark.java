@@ -0,0 +1,90 @@
+package io.codeleaf.config.benchmarks;
+
+import io.codeleaf.config.Configuration;
+import io.codeleaf.config.ConfigurationNotFoundException;
+import io.codeleaf.config.ConfigurationProvider;
+import io.codeleaf.config.impl.CachePolicy;
+import io.codeleaf.config.impl.ConfigurationCache;
+import io.codeleaf.config.spec.Specification;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a cache hit of {@link ConfigurationCache}, compared to reading a static final field.
+ * <p>
+ * <code>staticField</code> is the baseline, <code>slotHit</code> is a hit of an unbounded cache served from its
+ * per-class slot, and <code>mapHit</code> is a hit of a bounded cache served from its map.
+ *
+ * @since 0.10.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConfigurationCacheBenchmark {
+
+    private static final SampleConfiguration STATIC_CONFIGURATION = new SampleConfiguration();
+
+    private ConfigurationCache unboundedCache;
+    private ConfigurationCache boundedCache;
+
+    @Setup
+    public void setup() throws Exception {
+        unboundedCache = ConfigurationCache.create(new SampleProvider());
+        boundedCache = ConfigurationCache.create(new SampleProvider(), CachePolicy.lru(1024));
+        unboundedCache.getConfiguration(SampleConfiguration.class);
+        boundedCache.getConfiguration(SampleConfiguration.class);
+    }
+
+    @Benchmark
+    public SampleConfiguration staticField() {
+        return STATIC_CONFIGURATION;
+    }
+
+    @Benchmark
+    public SampleConfiguration slotHit() throws Exception {
+        return unboundedCache.getConfiguration(SampleConfiguration.class);
+    }
+
+    @Benchmark
+    public SampleConfiguration mapHit() throws Exception {
+        return boundedCache.getConfiguration(SampleConfiguration.class);
+    }
+
+    public static final class SampleConfiguration implements Configuration {
+    }
+
+    private static final class SampleProvider implements ConfigurationProvider {
+
+        @Override
+        public <T extends Configuration> boolean hasConfiguration(Class<T> configurationTypeClass) {
+            return configurationTypeClass == SampleConfiguration.class;
+        }
+
+        @Override
+        public <T extends Configuration> T getConfiguration(Class<T> configurationTypeClass) throws ConfigurationNotFoundException {
+            if (!hasConfiguration(configurationTypeClass)) {
+                throw new ConfigurationNotFoundException(configurationTypeClass);
+            }
+            return configurationTypeClass.cast(new SampleConfiguration());
+        }
+
+        @Override
+        public <T extends Configuration> T getConfiguration(Class<T> configurationTypeClass, Object context) throws ConfigurationNotFoundException {
+            return getConfiguration(configurationTypeClass);
+        }
+
+        @Override
+        public <T extends Configuration> T parseConfiguration(Class<T> configurationTypeClass, Specification specification) throws ConfigurationNotFoundException {
+            return getConfiguration(configurationTypeClass);
+        }
+
+        @Override
+        public <T extends Configuration> T parseConfiguration(Class<T> configurationTypeClass, Specification specification, Object context) throws ConfigurationNotFoundException {
+            return getConfiguration(configurationTypeClass);
+        }
+    }
+}
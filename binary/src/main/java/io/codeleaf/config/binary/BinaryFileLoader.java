@@ -0,0 +1,148 @@
+package io.codeleaf.config.binary;
+
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.spec.SpecificationFormatException;
+import io.codeleaf.config.spec.SpecificationNotFoundException;
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+import io.codeleaf.config.util.ConfigDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Implements a specification loader for compiled binary specification files, named <code>&lt;name&gt;.spec.bin</code>.
+ * The files are memory-mapped, and the settings are read from the mapped buffer only when they are looked up.
+ * <p>
+ * If the parent directory contains a manifest file, as written by the specification compiler, the manifest lists
+ * the names of all specifications in the directory, and <code>hasSpecification</code> is answered from it without
+ * touching the file system.
+ * <p>
+ * Mapping and validating a file blocks. This loader keeps the default
+ * {@link SpecificationLoader#loadSpecificationAsync(String, java.util.concurrent.Executor)}, which does that work
+ * on the executor it is given.
+ *
+ * @see SpecificationLoader
+ * @see BinarySpecification
+ * @since 0.10.0
+ */
+public final class BinaryFileLoader implements SpecificationLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryFileLoader.class);
+
+    /**
+     * The file extension of compiled binary specification files.
+     */
+    public static final String FILE_EXTENSION = ".spec.bin";
+
+    /**
+     * The name of the manifest file, containing the names of the specifications, one per line.
+     */
+    public static final String MANIFEST_FILE_NAME = "specifications.manifest";
+
+    private final File parentPath;
+    private final Set<String> manifest;
+
+    private BinaryFileLoader(File parentPath, Set<String> manifest) {
+        this.parentPath = parentPath;
+        this.manifest = manifest;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Specification loadSpecification(String specificationName) throws SpecificationNotFoundException, IOException, SpecificationFormatException {
+        File file = getConfigurationFile(specificationName);
+        LOGGER.debug("Specification location: {}", file);
+        if (!hasSpecification(specificationName)) {
+            throw new SpecificationNotFoundException(specificationName);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return parseSpecification(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), specificationName);
+        }
+    }
+
+    /**
+     * Parses a specification from a buffer containing a binary specification.
+     *
+     * @param buffer the buffer to parse from, must not be modified afterwards
+     * @return the specification
+     * @throws SpecificationFormatException if the buffer does not contain a valid binary specification
+     */
+    public Specification parseSpecification(ByteBuffer buffer) throws SpecificationFormatException {
+        return parseSpecification(buffer, "<ByteBuffer>");
+    }
+
+    private Specification parseSpecification(ByteBuffer buffer, String specificationName) throws SpecificationFormatException {
+        try {
+            return BinarySpecification.create(buffer);
+        } catch (IllegalArgumentException cause) {
+            LOGGER.debug("Specification loading error: {}", cause.getMessage());
+            throw new SpecificationFormatException(specificationName, cause);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSpecification(String specificationName) {
+        return manifest != null
+                ? manifest.contains(specificationName)
+                : getConfigurationFile(specificationName).isFile();
+    }
+
+    private File getConfigurationFile(String specificationName) {
+        return new File(parentPath, specificationName + FILE_EXTENSION);
+    }
+
+    /**
+     * Constructs a new instance that reads from the default parent directory.
+     *
+     * @see ConfigDirectory#getDefaultDir()
+     */
+    public BinaryFileLoader() {
+        this(ConfigDirectory.getDefaultDir(), readManifest(ConfigDirectory.getDefaultDir()));
+    }
+
+    /**
+     * Creates a new instance reading from the parentPath.
+     *
+     * @param parentPath the parent path to use for reading the binary specification files.
+     * @return the new instance
+     * @throws IllegalArgumentException if the parentPath is not a directory, or the manifest can't be read
+     */
+    public static BinaryFileLoader create(File parentPath) {
+        ConfigDirectory.requireAccessibleDirectory(parentPath);
+        return new BinaryFileLoader(parentPath, readManifest(parentPath));
+    }
+
+    private static Set<String> readManifest(File parentPath) {
+        File file = new File(parentPath, MANIFEST_FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            Set<String> names = new HashSet<>();
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    names.add(line.trim());
+                }
+            }
+            LOGGER.debug("Read manifest with {} specifications: {}", names.size(), file);
+            return Collections.unmodifiableSet(names);
+        } catch (IOException cause) {
+            throw new IllegalArgumentException("Can't read manifest: " + file.getAbsolutePath(), cause);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.codeleaf.config.binary;
+
+/**
+ * Defines the layout of a compiled binary specification.
+ * <p>
+ * All numbers are big endian. A file starts with a header of {@link #HEADER_SIZE} bytes:
+ * <pre>
+ * int magic, int version, int stringCount, int settingCount, int slotCount,
+ * int stringIndexOffset, int settingsOffset, int slotsOffset
+ * </pre>
+ * The string index holds an <code>int offset, int length</code> pair per string, pointing to its UTF-8 bytes.
+ * The settings table holds an <code>int hash, int fieldOffset, int valueOffset</code> triple per setting, in the
+ * order of the specification it was compiled from. A field is stored as <code>int partCount</code> followed by the
+ * string index of each part, and its hash equals the <code>List</code> hash code of the field. The slots form an
+ * open addressing hash table (linear probing) over the settings, holding the setting index plus one, or
+ * <code>0</code> for an empty slot. A value is stored as a one byte tag, followed by its payload.
+ *
+ * @since 0.10.0
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x434C5342;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SETTING_ENTRY_SIZE = 12;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_TRUE = 1;
+    static final byte TAG_FALSE = 2;
+    static final byte TAG_STRING = 3;
+    static final byte TAG_INT = 4;
+    static final byte TAG_LONG = 5;
+    static final byte TAG_DOUBLE = 6;
+    static final byte TAG_DECIMAL = 7;
+    static final byte TAG_LIST = 8;
+    static final byte TAG_MAP = 9;
+
+    private BinaryFormat() {
+    }
+
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    static int slotCount(int settingCount) {
+        return Integer.highestOneBit(Math.max(1, settingCount) * 2 - 1) << 1;
+    }
+}
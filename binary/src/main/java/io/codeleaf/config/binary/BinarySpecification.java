@@ -0,0 +1,416 @@
+package io.codeleaf.config.binary;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.SettingNotFoundException;
+import io.codeleaf.config.spec.Specification;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Implements a specification that reads its settings directly from a buffer in the binary specification format.
+ * <p>
+ * Nothing is decoded upfront: field parts are decoded (and remembered) when a lookup needs them, and values are
+ * decoded each time they are read. When the buffer is memory-mapped, only the pages that are actually read are
+ * loaded from disk.
+ * <p>
+ * The buffer is validated once when the specification is created: all tables, fields and values must lie within the
+ * buffer and refer to existing strings and settings, so that lookups never fail on a corrupt buffer.
+ *
+ * @see BinaryFormat
+ * @see BinarySpecificationWriter
+ * @since 0.10.0
+ */
+public final class BinarySpecification implements Specification {
+
+    private static final int MAXIMUM_DEPTH = 1024;
+
+    private final ByteBuffer buffer;
+    private final int settingCount;
+    private final int slotCount;
+    private final int stringIndexOffset;
+    private final int settingsOffset;
+    private final int slotsOffset;
+    private final String[] strings;
+
+    private BinarySpecification(ByteBuffer buffer, int stringCount, int settingCount, int slotCount, int stringIndexOffset, int settingsOffset, int slotsOffset) {
+        this.buffer = buffer;
+        this.settingCount = settingCount;
+        this.slotCount = slotCount;
+        this.stringIndexOffset = stringIndexOffset;
+        this.settingsOffset = settingsOffset;
+        this.slotsOffset = slotsOffset;
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Setting> iterator() {
+        return getSettings(FieldPath.ROOT).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Setting> getSettings(List<String> fieldPrefix) {
+        List<Setting> settings = new ArrayList<>();
+        for (int i = 0; i < settingCount; i++) {
+            if (prefixMatches(fieldOffset(i), fieldPrefix)) {
+                settings.add(new Setting(readField(fieldOffset(i)), readValue(valueOffset(i))));
+            }
+        }
+        return Collections.unmodifiableList(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSetting(List<String> fieldPrefix, SettingVisitor visitor) {
+        for (int i = 0; i < settingCount; i++) {
+            int fieldOffset = fieldOffset(i);
+            if (prefixMatches(fieldOffset, fieldPrefix)) {
+                visitor.visit(readField(fieldOffset), readValue(valueOffset(i)));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<List<String>> getDefined(List<String> fieldPrefix) {
+        FieldPath prefix = FieldPath.of(fieldPrefix);
+        List<List<String>> defined = new ArrayList<>();
+        for (String child : getChilds(fieldPrefix)) {
+            defined.add(prefix.child(child));
+        }
+        return defined;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getChilds(List<String> fieldPrefix) {
+        Set<String> childs = new LinkedHashSet<>();
+        for (int i = 0; i < settingCount; i++) {
+            int fieldOffset = fieldOffset(i);
+            if (buffer.getInt(fieldOffset) > fieldPrefix.size() && prefixMatches(fieldOffset, fieldPrefix)) {
+                childs.add(getString(buffer.getInt(fieldOffset + 4 + fieldPrefix.size() * 4)));
+            }
+        }
+        return new ArrayList<>(childs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSetting(List<String> field) {
+        return find(field) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Setting getSetting(List<String> field) throws SettingNotFoundException {
+        int index = find(field);
+        if (index < 0) {
+            throw new SettingNotFoundException(this, field);
+        }
+        return new Setting(FieldPath.of(field), readValue(valueOffset(index)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Setting> findSetting(List<String> field) {
+        int index = find(field);
+        return index < 0 ? Optional.empty() : Optional.of(new Setting(FieldPath.of(field), readValue(valueOffset(index))));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueOrDefault(List<String> field, Object defaultValue) {
+        int index = find(field);
+        return index < 0 ? defaultValue : readValue(valueOffset(index));
+    }
+
+    private int find(List<String> field) {
+        int hash = field.hashCode();
+        int mask = slotCount - 1;
+        int slot = BinaryFormat.spread(hash) & mask;
+        for (int probe = 0; probe < slotCount; probe++, slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(slotsOffset + slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            int fieldOffset = fieldOffset(index);
+            if (buffer.getInt(settingsOffset + index * BinaryFormat.SETTING_ENTRY_SIZE) == hash
+                    && buffer.getInt(fieldOffset) == field.size()
+                    && prefixMatches(fieldOffset, field)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int fieldOffset(int index) {
+        return buffer.getInt(settingsOffset + index * BinaryFormat.SETTING_ENTRY_SIZE + 4);
+    }
+
+    private int valueOffset(int index) {
+        return buffer.getInt(settingsOffset + index * BinaryFormat.SETTING_ENTRY_SIZE + 8);
+    }
+
+    private boolean prefixMatches(int fieldOffset, List<String> fieldPrefix) {
+        if (buffer.getInt(fieldOffset) < fieldPrefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < fieldPrefix.size(); i++) {
+            if (!getString(buffer.getInt(fieldOffset + 4 + i * 4)).equals(fieldPrefix.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FieldPath readField(int fieldOffset) {
+        String[] parts = new String[buffer.getInt(fieldOffset)];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = getString(buffer.getInt(fieldOffset + 4 + i * 4));
+        }
+        return FieldPath.of(parts);
+    }
+
+    private Object readValue(int valueOffset) {
+        return readValue(new int[]{valueOffset});
+    }
+
+    private Object readValue(int[] position) {
+        int offset = position[0];
+        byte tag = buffer.get(offset);
+        switch (tag) {
+            case BinaryFormat.TAG_NULL:
+                position[0] = offset + 1;
+                return null;
+            case BinaryFormat.TAG_TRUE:
+                position[0] = offset + 1;
+                return Boolean.TRUE;
+            case BinaryFormat.TAG_FALSE:
+                position[0] = offset + 1;
+                return Boolean.FALSE;
+            case BinaryFormat.TAG_STRING:
+                position[0] = offset + 5;
+                return getString(buffer.getInt(offset + 1));
+            case BinaryFormat.TAG_INT:
+                position[0] = offset + 5;
+                return buffer.getInt(offset + 1);
+            case BinaryFormat.TAG_LONG:
+                position[0] = offset + 9;
+                return buffer.getLong(offset + 1);
+            case BinaryFormat.TAG_DOUBLE:
+                position[0] = offset + 9;
+                return buffer.getDouble(offset + 1);
+            case BinaryFormat.TAG_DECIMAL:
+                position[0] = offset + 5;
+                return new BigDecimal(getString(buffer.getInt(offset + 1)));
+            case BinaryFormat.TAG_LIST: {
+                int size = buffer.getInt(offset + 1);
+                position[0] = offset + 5;
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(position));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            case BinaryFormat.TAG_MAP: {
+                int size = buffer.getInt(offset + 1);
+                position[0] = offset + 5;
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = getString(buffer.getInt(position[0]));
+                    position[0] += 4;
+                    map.put(key, readValue(position));
+                }
+                return Collections.unmodifiableMap(map);
+            }
+            default:
+                // unreachable: the values are validated by create
+                throw new IllegalStateException("Invalid value tag: " + tag);
+        }
+    }
+
+    private String getString(int index) {
+        String string = strings[index];
+        if (string == null) {
+            int offset = buffer.getInt(stringIndexOffset + index * 8);
+            byte[] bytes = new byte[buffer.getInt(stringIndexOffset + index * 8 + 4)];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Creates a new instance that reads from the specified buffer. The buffer must not be modified afterwards.
+     *
+     * @param buffer the buffer containing a specification in binary format
+     * @return the new instance
+     * @throws IllegalArgumentException if the buffer does not contain a binary specification of a supported version,
+     *                                  or if any of its tables, fields or values is out of range or malformed
+     * @throws NullPointerException     if buffer is <code>null</code>
+     */
+    public static BinarySpecification create(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        ByteBuffer slice = buffer.slice();
+        if (slice.limit() < BinaryFormat.HEADER_SIZE || slice.getInt(0) != BinaryFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a binary specification!");
+        }
+        if (slice.getInt(4) != BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported binary specification version: " + slice.getInt(4));
+        }
+        int stringCount = slice.getInt(8);
+        int settingCount = slice.getInt(12);
+        int slotCount = slice.getInt(16);
+        int stringIndexOffset = slice.getInt(20);
+        int settingsOffset = slice.getInt(24);
+        int slotsOffset = slice.getInt(28);
+        if (stringCount < 0 || settingCount < 0 || slotCount <= settingCount || Integer.bitCount(slotCount) != 1
+                || stringIndexOffset < BinaryFormat.HEADER_SIZE
+                || settingsOffset < BinaryFormat.HEADER_SIZE
+                || slotsOffset < BinaryFormat.HEADER_SIZE
+                || (long) stringIndexOffset + stringCount * 8L > slice.limit()
+                || (long) settingsOffset + (long) settingCount * BinaryFormat.SETTING_ENTRY_SIZE > slice.limit()
+                || (long) slotsOffset + slotCount * 4L > slice.limit()) {
+            throw new IllegalArgumentException("Corrupt binary specification!");
+        }
+        validate(slice, stringCount, settingCount, slotCount, stringIndexOffset, settingsOffset, slotsOffset);
+        return new BinarySpecification(slice, stringCount, settingCount, slotCount, stringIndexOffset, settingsOffset, slotsOffset);
+    }
+
+    private static void validate(ByteBuffer buffer, int stringCount, int settingCount, int slotCount, int stringIndexOffset, int settingsOffset, int slotsOffset) {
+        for (int i = 0; i < stringCount; i++) {
+            int offset = buffer.getInt(stringIndexOffset + i * 8);
+            int length = buffer.getInt(stringIndexOffset + i * 8 + 4);
+            requireRange(offset, length, buffer, "string " + i);
+        }
+        boolean hasEmptySlot = false;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int entry = buffer.getInt(slotsOffset + slot * 4);
+            if (entry < 0 || entry > settingCount) {
+                throw new IllegalArgumentException("Corrupt binary specification: slot " + slot + " refers to setting " + entry);
+            }
+            hasEmptySlot |= entry == 0;
+        }
+        if (!hasEmptySlot) {
+            throw new IllegalArgumentException("Corrupt binary specification: no empty slot");
+        }
+        for (int i = 0; i < settingCount; i++) {
+            int fieldOffset = buffer.getInt(settingsOffset + i * BinaryFormat.SETTING_ENTRY_SIZE + 4);
+            requireRange(fieldOffset, 4, buffer, "field of setting " + i);
+            int partCount = buffer.getInt(fieldOffset);
+            if (partCount < 0) {
+                throw new IllegalArgumentException("Corrupt binary specification: negative part count for setting " + i);
+            }
+            requireRange(fieldOffset + 4, partCount * 4L, buffer, "field of setting " + i);
+            for (int part = 0; part < partCount; part++) {
+                requireString(buffer.getInt(fieldOffset + 4 + part * 4), stringCount, "field of setting " + i);
+            }
+            int valueOffset = buffer.getInt(settingsOffset + i * BinaryFormat.SETTING_ENTRY_SIZE + 8);
+            validateValue(buffer, stringIndexOffset, stringCount, new int[]{valueOffset}, 0, "value of setting " + i);
+        }
+    }
+
+    private static void validateValue(ByteBuffer buffer, int stringIndexOffset, int stringCount, int[] position, int depth, String description) {
+        if (depth > MAXIMUM_DEPTH) {
+            throw new IllegalArgumentException("Corrupt binary specification: " + description + " is nested too deep");
+        }
+        int offset = position[0];
+        requireRange(offset, 1, buffer, description);
+        byte tag = buffer.get(offset);
+        switch (tag) {
+            case BinaryFormat.TAG_NULL:
+            case BinaryFormat.TAG_TRUE:
+            case BinaryFormat.TAG_FALSE:
+                position[0] = offset + 1;
+                break;
+            case BinaryFormat.TAG_STRING:
+                requireRange(offset + 1, 4, buffer, description);
+                requireString(buffer.getInt(offset + 1), stringCount, description);
+                position[0] = offset + 5;
+                break;
+            case BinaryFormat.TAG_DECIMAL: {
+                requireRange(offset + 1, 4, buffer, description);
+                int index = buffer.getInt(offset + 1);
+                requireString(index, stringCount, description);
+                byte[] bytes = new byte[buffer.getInt(stringIndexOffset + index * 8 + 4)];
+                ByteBuffer view = buffer.duplicate();
+                view.position(buffer.getInt(stringIndexOffset + index * 8));
+                view.get(bytes);
+                try {
+                    new BigDecimal(new String(bytes, StandardCharsets.UTF_8));
+                } catch (NumberFormatException cause) {
+                    throw new IllegalArgumentException("Corrupt binary specification: " + description + " is not a decimal", cause);
+                }
+                position[0] = offset + 5;
+                break;
+            }
+            case BinaryFormat.TAG_INT:
+                requireRange(offset + 1, 4, buffer, description);
+                position[0] = offset + 5;
+                break;
+            case BinaryFormat.TAG_LONG:
+            case BinaryFormat.TAG_DOUBLE:
+                requireRange(offset + 1, 8, buffer, description);
+                position[0] = offset + 9;
+                break;
+            case BinaryFormat.TAG_LIST:
+            case BinaryFormat.TAG_MAP: {
+                requireRange(offset + 1, 4, buffer, description);
+                int size = buffer.getInt(offset + 1);
+                if (size < 0 || size > buffer.limit() - offset - 5) {
+                    throw new IllegalArgumentException("Corrupt binary specification: " + description + " has an invalid size: " + size);
+                }
+                position[0] = offset + 5;
+                for (int i = 0; i < size; i++) {
+                    if (tag == BinaryFormat.TAG_MAP) {
+                        requireRange(position[0], 4, buffer, description);
+                        requireString(buffer.getInt(position[0]), stringCount, description);
+                        position[0] += 4;
+                    }
+                    validateValue(buffer, stringIndexOffset, stringCount, position, depth + 1, description);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Corrupt binary specification: " + description + " has an invalid tag: " + tag);
+        }
+    }
+
+    private static void requireRange(long offset, long length, ByteBuffer buffer, String description) {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new IllegalArgumentException("Corrupt binary specification: " + description + " is out of range");
+        }
+    }
+
+    private static void requireString(int index, int stringCount, String description) {
+        if (index < 0 || index >= stringCount) {
+            throw new IllegalArgumentException("Corrupt binary specification: " + description + " refers to string " + index);
+        }
+    }
+}
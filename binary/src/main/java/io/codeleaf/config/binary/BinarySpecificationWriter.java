@@ -0,0 +1,161 @@
+package io.codeleaf.config.binary;
+
+import io.codeleaf.config.spec.Specification;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Implements a writer that compiles a specification into the binary specification format.
+ * Supported values are <code>null</code>, strings, booleans, numbers, and lists and maps of supported values.
+ *
+ * @see BinarySpecification
+ * @see BinaryFileLoader
+ * @since 0.10.0
+ */
+public final class BinarySpecificationWriter {
+
+    /**
+     * Writes the specification in binary format to the specified file.
+     *
+     * @param specification the specification to write
+     * @param file          the file to write to
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the specification contains an unsupported value
+     */
+    public void writeSpecification(Specification specification, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeSpecification(specification, out);
+        }
+    }
+
+    /**
+     * Writes the specification in binary format to the specified output stream.
+     *
+     * @param specification the specification to write
+     * @param out           the output stream to write to, the stream is not closed
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the specification contains an unsupported value
+     */
+    public void writeSpecification(Specification specification, OutputStream out) throws IOException {
+        Objects.requireNonNull(specification);
+        Objects.requireNonNull(out);
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+        DataOutputStream fields = new DataOutputStream(fieldBytes);
+        DataOutputStream values = new DataOutputStream(valueBytes);
+        List<int[]> entries = new ArrayList<>();
+        for (Specification.Setting setting : specification) {
+            List<String> field = setting.getField();
+            entries.add(new int[]{field.hashCode(), fields.size(), values.size()});
+            fields.writeInt(field.size());
+            for (String part : field) {
+                fields.writeInt(indexOf(strings, part));
+            }
+            writeValue(values, strings, setting.getValue());
+        }
+        int slotCount = BinaryFormat.slotCount(entries.size());
+        int stringIndexOffset = BinaryFormat.HEADER_SIZE;
+        int settingsOffset = stringIndexOffset + strings.size() * 8;
+        int slotsOffset = settingsOffset + entries.size() * BinaryFormat.SETTING_ENTRY_SIZE;
+        int fieldsOffset = slotsOffset + slotCount * 4;
+        int valuesOffset = fieldsOffset + fields.size();
+        int stringDataOffset = valuesOffset + values.size();
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BinaryFormat.MAGIC);
+        data.writeInt(BinaryFormat.VERSION);
+        data.writeInt(strings.size());
+        data.writeInt(entries.size());
+        data.writeInt(slotCount);
+        data.writeInt(stringIndexOffset);
+        data.writeInt(settingsOffset);
+        data.writeInt(slotsOffset);
+        List<byte[]> encodedStrings = new ArrayList<>(strings.size());
+        int stringOffset = stringDataOffset;
+        for (String string : strings.keySet()) {
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(encoded);
+            data.writeInt(stringOffset);
+            data.writeInt(encoded.length);
+            stringOffset += encoded.length;
+        }
+        int[] slots = new int[slotCount];
+        for (int i = 0; i < entries.size(); i++) {
+            int[] entry = entries.get(i);
+            data.writeInt(entry[0]);
+            data.writeInt(fieldsOffset + entry[1]);
+            data.writeInt(valuesOffset + entry[2]);
+            int slot = BinaryFormat.spread(entry[0]) & (slotCount - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = i + 1;
+        }
+        for (int slot : slots) {
+            data.writeInt(slot);
+        }
+        fieldBytes.writeTo(data);
+        valueBytes.writeTo(data);
+        for (byte[] encoded : encodedStrings) {
+            data.write(encoded);
+        }
+        data.flush();
+    }
+
+    private static void writeValue(DataOutputStream out, Map<String, Integer> strings, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(BinaryFormat.TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? BinaryFormat.TAG_TRUE : BinaryFormat.TAG_FALSE);
+        } else if (value instanceof String) {
+            out.writeByte(BinaryFormat.TAG_STRING);
+            out.writeInt(indexOf(strings, (String) value));
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(BinaryFormat.TAG_INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(BinaryFormat.TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(BinaryFormat.TAG_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            out.writeByte(BinaryFormat.TAG_DECIMAL);
+            out.writeInt(indexOf(strings, value.toString()));
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(BinaryFormat.TAG_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, strings, element);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(BinaryFormat.TAG_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String)) {
+                    throw new IllegalArgumentException("Unsupported map key: " + entry.getKey());
+                }
+                out.writeInt(indexOf(strings, (String) entry.getKey()));
+                writeValue(out, strings, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static int indexOf(Map<String, Integer> strings, String string) {
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides a binary format for compiled specifications and a specification loader for it.
+ */
+package io.codeleaf.config.binary;
\ No newline at end of file
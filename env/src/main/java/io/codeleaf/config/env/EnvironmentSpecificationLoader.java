@@ -0,0 +1,96 @@
+package io.codeleaf.config.env;
+
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implements a specification loader for environment variables.
+ * <p>
+ * The mapping of variable prefixes to specification names is read from the <code>config.env.mapping</code> system
+ * property, for example <code>MYAPP=com.example.MyAppConfig</code>. With this mapping, the variable
+ * <code>MYAPP_DB_POOL_SIZE</code> becomes the setting <code>db.pool.size</code> of the specification
+ * <code>com.example.MyAppConfig</code>: the prefix is removed, and the rest is lower cased and split on
+ * <code>_</code>. Multiple entries are separated by <code>,</code>.
+ * <p>
+ * The environment is read once, the first time the loader is used.
+ * <p>
+ * The loader has priority {@value #PRIORITY}: when the service loader finds a specification both here and in a file,
+ * the specification of this loader is used as a whole, and the file is not read. To override individual settings of a
+ * file, combine the loaders in a {@link io.codeleaf.config.spec.impl.LayeredSpecificationProvider} instead.
+ *
+ * @see SpecificationLoader
+ * @see System#getenv()
+ * @since 0.10.0
+ */
+public final class EnvironmentSpecificationLoader extends SnapshotSpecificationLoader {
+
+    /**
+     * The system property containing the mapping of variable prefixes to specification names.
+     */
+    public static final String MAPPING_PROPERTY = "config.env.mapping";
+
+    /**
+     * The priority of this loader, above the loaders of files and below {@link SystemPropertiesSpecificationLoader}.
+     */
+    public static final int PRIORITY = 100;
+
+    private final Map<String, String> variables;
+
+    private EnvironmentSpecificationLoader(Map<String, String> variables, Map<String, String> mapping) {
+        super(mapping, '_', true);
+        this.variables = variables;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Map<String, String> readSource() {
+        return variables != null ? variables : System.getenv();
+    }
+
+    /**
+     * Creates a new instance, using the mapping from the <code>config.env.mapping</code> system property.
+     *
+     * @throws IllegalArgumentException if the mapping is malformed
+     */
+    public EnvironmentSpecificationLoader() {
+        this(null, parseMapping(System.getProperty(MAPPING_PROPERTY)));
+    }
+
+    /**
+     * Creates a new instance reading the environment variables, using the specified mapping of variable prefixes
+     * to specification names.
+     *
+     * @param mapping the mapping of variable prefixes to specification names
+     * @return the new instance
+     * @throws NullPointerException if mapping is <code>null</code>
+     */
+    public static EnvironmentSpecificationLoader create(Map<String, String> mapping) {
+        return new EnvironmentSpecificationLoader(null, copyMapping(mapping));
+    }
+
+    /**
+     * Creates a new instance reading the specified variables, using the specified mapping of variable prefixes to
+     * specification names.
+     *
+     * @param variables the variables to read the settings from
+     * @param mapping   the mapping of variable prefixes to specification names
+     * @return the new instance
+     * @throws NullPointerException if variables or mapping is <code>null</code>
+     */
+    public static EnvironmentSpecificationLoader create(Map<String, String> variables, Map<String, String> mapping) {
+        Objects.requireNonNull(variables);
+        return new EnvironmentSpecificationLoader(variables, copyMapping(mapping));
+    }
+}
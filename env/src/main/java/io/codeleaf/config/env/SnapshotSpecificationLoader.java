@@ -0,0 +1,151 @@
+package io.codeleaf.config.env;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.spec.SpecificationNotFoundException;
+import io.codeleaf.config.spec.impl.MapSpecification;
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+
+import java.util.*;
+
+/**
+ * Implements the common part of the specification loaders that read their settings from a map of string keys to
+ * string values, like the environment variables or the system properties.
+ * <p>
+ * A mapping assigns key prefixes to specification names. The first time the loader is used, the source is read once
+ * into a snapshot: each key that starts with a mapped prefix, followed by the separator, is split on the separator
+ * into the field of a setting in the mapped specification. A key that is only the prefix and the separator is
+ * ignored. After that, name lookups are a single hash probe and
+ * loading returns the specification from the snapshot.
+ *
+ * @since 0.10.0
+ */
+abstract class SnapshotSpecificationLoader implements SpecificationLoader {
+
+    private final Map<String, String> mapping;
+    private final char separator;
+    private final boolean lowerCase;
+    private volatile Map<String, Specification> snapshot;
+
+    SnapshotSpecificationLoader(Map<String, String> mapping, char separator, boolean lowerCase) {
+        this.mapping = mapping;
+        this.separator = separator;
+        this.lowerCase = lowerCase;
+    }
+
+    /**
+     * Returns the keys and values to read the settings from. Called once, when the snapshot is created.
+     *
+     * @return the keys and values to read the settings from
+     */
+    abstract Map<String, String> readSource();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Specification loadSpecification(String specificationName) throws SpecificationNotFoundException {
+        Specification specification = getSnapshot().get(specificationName);
+        if (specification == null) {
+            throw new SpecificationNotFoundException(specificationName);
+        }
+        return specification;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSpecification(String specificationName) {
+        return getSnapshot().containsKey(specificationName);
+    }
+
+    private Map<String, Specification> getSnapshot() {
+        Map<String, Specification> snapshot = this.snapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = this.snapshot;
+                if (snapshot == null) {
+                    snapshot = mapping.isEmpty() ? Collections.emptyMap() : createSnapshot(readSource());
+                    this.snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private Map<String, Specification> createSnapshot(Map<String, String> source) {
+        Map<String, String> fieldParts = new HashMap<>();
+        Map<String, Map<List<String>, Object>> settingsMaps = new HashMap<>();
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            String key = entry.getKey();
+            for (int end = key.indexOf(separator); end > 0; end = key.indexOf(separator, end + 1)) {
+                String specificationName = mapping.get(key.substring(0, end));
+                if (specificationName != null) {
+                    if (end + 1 == key.length()) {
+                        break;
+                    }
+                    settingsMaps.computeIfAbsent(specificationName, name -> new LinkedHashMap<>())
+                            .put(createField(key, end + 1, fieldParts), entry.getValue());
+                    break;
+                }
+            }
+        }
+        Map<String, Specification> snapshot = new HashMap<>();
+        for (Map.Entry<String, Map<List<String>, Object>> entry : settingsMaps.entrySet()) {
+            snapshot.put(entry.getKey(), MapSpecification.create(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private List<String> createField(String key, int start, Map<String, String> fieldParts) {
+        String name = lowerCase ? key.substring(start).toLowerCase(Locale.ROOT) : key.substring(start);
+        List<String> parts = new ArrayList<>();
+        int partStart = 0;
+        for (int end = name.indexOf(separator); end >= 0; end = name.indexOf(separator, partStart)) {
+            parts.add(fieldPart(name.substring(partStart, end), fieldParts));
+            partStart = end + 1;
+        }
+        parts.add(fieldPart(name.substring(partStart), fieldParts));
+        return FieldPath.of(parts);
+    }
+
+    private String fieldPart(String part, Map<String, String> fieldParts) {
+        String shared = fieldParts.putIfAbsent(part, part);
+        return shared == null ? part : shared;
+    }
+
+    /**
+     * Parses a mapping of key prefixes to specification names, in the format
+     * <code>prefix=specificationName[,prefix=specificationName]*</code>.
+     *
+     * @param mapping the mapping to parse, or <code>null</code>
+     * @return the parsed mapping, empty if mapping is <code>null</code> or empty
+     * @throws IllegalArgumentException if an entry of the mapping is malformed
+     */
+    static Map<String, String> parseMapping(String mapping) {
+        Map<String, String> parsedMapping = new HashMap<>();
+        if (mapping == null || mapping.trim().isEmpty()) {
+            return parsedMapping;
+        }
+        for (String entry : mapping.split(",")) {
+            int separator = entry.indexOf('=');
+            String prefix = separator < 0 ? "" : entry.substring(0, separator).trim();
+            String specificationName = separator < 0 ? "" : entry.substring(separator + 1).trim();
+            if (prefix.isEmpty() || specificationName.isEmpty()) {
+                throw new IllegalArgumentException("Invalid mapping entry, expected prefix=specificationName: " + entry);
+            }
+            parsedMapping.put(prefix, specificationName);
+        }
+        return parsedMapping;
+    }
+
+    static Map<String, String> copyMapping(Map<String, String> mapping) {
+        Objects.requireNonNull(mapping);
+        Map<String, String> copiedMapping = new HashMap<>();
+        for (Map.Entry<String, String> entry : mapping.entrySet()) {
+            copiedMapping.put(Objects.requireNonNull(entry.getKey()), Objects.requireNonNull(entry.getValue()));
+        }
+        return copiedMapping;
+    }
+}
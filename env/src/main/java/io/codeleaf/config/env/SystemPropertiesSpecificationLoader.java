@@ -0,0 +1,103 @@
+package io.codeleaf.config.env;
+
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Implements a specification loader for system properties.
+ * <p>
+ * The mapping of property prefixes to specification names is read from the <code>config.sys.mapping</code> system
+ * property, for example <code>myapp=com.example.MyAppConfig</code>. With this mapping, the property
+ * <code>myapp.db.pool.size</code> becomes the setting <code>db.pool.size</code> of the specification
+ * <code>com.example.MyAppConfig</code>. Multiple entries are separated by <code>,</code>.
+ * <p>
+ * The system properties are read once, the first time the loader is used.
+ * <p>
+ * The loader has priority {@value #PRIORITY}: when the service loader finds a specification both here and in a file
+ * or the environment, the specification of this loader is used as a whole, and the others are not read. To override
+ * individual settings, combine the loaders in a {@link io.codeleaf.config.spec.impl.LayeredSpecificationProvider}
+ * instead.
+ *
+ * @see SpecificationLoader
+ * @see System#getProperties()
+ * @since 0.10.0
+ */
+public final class SystemPropertiesSpecificationLoader extends SnapshotSpecificationLoader {
+
+    /**
+     * The system property containing the mapping of property prefixes to specification names.
+     */
+    public static final String MAPPING_PROPERTY = "config.sys.mapping";
+
+    /**
+     * The priority of this loader, above {@link EnvironmentSpecificationLoader} and the loaders of files.
+     */
+    public static final int PRIORITY = 200;
+
+    private final Properties properties;
+
+    private SystemPropertiesSpecificationLoader(Properties properties, Map<String, String> mapping) {
+        super(mapping, '.', false);
+        this.properties = properties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Map<String, String> readSource() {
+        Properties source = properties != null ? properties : System.getProperties();
+        Map<String, String> values = new HashMap<>();
+        for (String name : source.stringPropertyNames()) {
+            values.put(name, source.getProperty(name));
+        }
+        return values;
+    }
+
+    /**
+     * Creates a new instance, using the mapping from the <code>config.sys.mapping</code> system property.
+     *
+     * @throws IllegalArgumentException if the mapping is malformed
+     */
+    public SystemPropertiesSpecificationLoader() {
+        this(null, parseMapping(System.getProperty(MAPPING_PROPERTY)));
+    }
+
+    /**
+     * Creates a new instance reading the system properties, using the specified mapping of property prefixes to
+     * specification names.
+     *
+     * @param mapping the mapping of property prefixes to specification names
+     * @return the new instance
+     * @throws NullPointerException if mapping is <code>null</code>
+     */
+    public static SystemPropertiesSpecificationLoader create(Map<String, String> mapping) {
+        return new SystemPropertiesSpecificationLoader(null, copyMapping(mapping));
+    }
+
+    /**
+     * Creates a new instance reading the specified properties, using the specified mapping of property prefixes to
+     * specification names.
+     *
+     * @param properties the properties to read the settings from
+     * @param mapping    the mapping of property prefixes to specification names
+     * @return the new instance
+     * @throws NullPointerException if properties or mapping is <code>null</code>
+     */
+    public static SystemPropertiesSpecificationLoader create(Properties properties, Map<String, String> mapping) {
+        Objects.requireNonNull(properties);
+        return new SystemPropertiesSpecificationLoader(properties, copyMapping(mapping));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides specification loaders for environment variables and system properties.
+ */
+package io.codeleaf.config.env;
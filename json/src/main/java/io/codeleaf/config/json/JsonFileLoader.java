@@ -6,22 +6,25 @@ import io.codeleaf.config.spec.SpecificationNotFoundException;
 import io.codeleaf.config.spec.impl.MapSpecification;
 import io.codeleaf.config.spec.spi.SpecificationLoader;
 import io.codeleaf.config.util.ConfigDirectory;
-import jakarta.json.bind.Jsonb;
-import jakarta.json.bind.JsonbBuilder;
-import jakarta.json.bind.JsonbException;
+import jakarta.json.JsonException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Implements a specification loader for json files.
+ * The files are parsed in a single streaming pass by the {@link JsonSpecificationParser}.
+ * <p>
+ * The files are read with blocking I/O. This loader keeps the default
+ * {@link SpecificationLoader#loadSpecificationAsync(String, java.util.concurrent.Executor)}, which reads on the
+ * executor it is given.
  *
  * @author tvburger@gmail.com
  * @see SpecificationLoader
  * @see MapSpecification
- * @see Jsonb
+ * @see JsonSpecificationParser
  * @since 0.1.0
  */
 public final class JsonFileLoader implements SpecificationLoader {
@@ -29,11 +32,11 @@ public final class JsonFileLoader implements SpecificationLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonFileLoader.class);
 
     private final File parentPath;
-    private final Jsonb jsonb;
+    private final JsonSpecificationParser parser;
 
-    private JsonFileLoader(File parentPath, Jsonb jsonb) {
+    private JsonFileLoader(File parentPath, JsonSpecificationParser parser) {
         this.parentPath = parentPath;
-        this.jsonb = jsonb;
+        this.parser = parser;
     }
 
     /**
@@ -45,7 +48,7 @@ public final class JsonFileLoader implements SpecificationLoader {
         if (!hasSpecification(specificationName)) {
             throw new SpecificationNotFoundException(specificationName);
         }
-        try (InputStream in = new FileInputStream(getConfigurationFile(specificationName))) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(getConfigurationFile(specificationName)))) {
             return doParseSpecification(in, specificationName);
         }
     }
@@ -55,16 +58,18 @@ public final class JsonFileLoader implements SpecificationLoader {
     }
 
     public Specification parseSpecification(String value) throws IOException, SpecificationFormatException {
-        try (InputStream in = new ByteArrayInputStream(value.getBytes())) {
-            return doParseSpecification(in, "<String>");
+        try {
+            return parser.parseSpecification(new StringReader(value));
+        } catch (JsonException | IllegalArgumentException | NoSuchElementException cause) {
+            LOGGER.debug("Specification loading error: " + cause.getMessage());
+            throw new SpecificationFormatException("<String>", cause);
         }
     }
 
     private Specification doParseSpecification(InputStream in, String specificationName) throws IOException, SpecificationFormatException {
         try {
-            Map<?, ?> map = jsonb.fromJson(in, Map.class);
-            return MapSpecification.create(MapSpecification.normalize(map));
-        } catch (JsonbException | IllegalArgumentException cause) {
+            return parser.parseSpecification(in);
+        } catch (JsonException | IllegalArgumentException | NoSuchElementException cause) {
             LOGGER.debug("Specification loading error: " + cause.getMessage());
             throw new SpecificationFormatException(specificationName, cause);
         }
@@ -84,15 +89,13 @@ public final class JsonFileLoader implements SpecificationLoader {
         return file;
     }
 
-    private static final Jsonb JSONB = JsonbBuilder.create();
-
     /**
      * Constructs a new instance that reads from the default parent directory.
      *
      * @see ConfigDirectory#getDefaultDir()
      */
     public JsonFileLoader() {
-        this(ConfigDirectory.getDefaultDir(), JSONB);
+        this(ConfigDirectory.getDefaultDir(), JsonSpecificationParser.get());
     }
 
     /**
@@ -104,6 +107,6 @@ public final class JsonFileLoader implements SpecificationLoader {
      */
     public static JsonFileLoader create(File parentPath) {
         ConfigDirectory.requireAccessibleDirectory(parentPath);
-        return new JsonFileLoader(parentPath, JSONB);
+        return new JsonFileLoader(parentPath, JsonSpecificationParser.get());
     }
 }
@@ -0,0 +1,125 @@
+package io.codeleaf.config.json;
+
+import io.codeleaf.config.spec.FieldPath;
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.spec.impl.MapSpecification;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Implements a streaming parser that parses a specification out of a json document.
+ * <p>
+ * The document is walked once using the events of a {@link JsonParser}. Nested objects are flattened while parsing,
+ * so each value is put directly under its field, without building intermediate maps. Numbers are parsed as
+ * <code>BigDecimal</code>, arrays as lists, and objects within arrays as maps.
+ *
+ * @see JsonParser
+ * @see Specification
+ * @since 0.10.0
+ */
+public final class JsonSpecificationParser {
+
+    private final JsonParserFactory parserFactory;
+
+    private JsonSpecificationParser(JsonParserFactory parserFactory) {
+        this.parserFactory = parserFactory;
+    }
+
+    /**
+     * Parses a specification from the specified json input stream.
+     *
+     * @param in the input stream to parse, the stream is closed after parsing
+     * @return the resulting specification
+     * @throws jakarta.json.JsonException if the input is not valid json
+     * @throws IllegalArgumentException   if the json document is not an object
+     */
+    public Specification parseSpecification(InputStream in) {
+        return parseSpecification(parserFactory.createParser(in));
+    }
+
+    /**
+     * Parses a specification from the specified json reader.
+     *
+     * @param reader the reader to parse, the reader is closed after parsing
+     * @return the resulting specification
+     * @throws jakarta.json.JsonException if the input is not valid json
+     * @throws IllegalArgumentException   if the json document is not an object
+     */
+    public Specification parseSpecification(Reader reader) {
+        return parseSpecification(parserFactory.createParser(reader));
+    }
+
+    private Specification parseSpecification(JsonParser parser) {
+        try (JsonParser closeableParser = parser) {
+            Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
+            if (!closeableParser.hasNext() || closeableParser.next() != JsonParser.Event.START_OBJECT) {
+                throw new IllegalArgumentException("Json document is not an object!");
+            }
+            parseObject(closeableParser, FieldPath.ROOT, settingsMap);
+            if (closeableParser.hasNext()) {
+                throw new IllegalArgumentException("Unexpected content after json object!");
+            }
+            return MapSpecification.wrap(settingsMap);
+        }
+    }
+
+    private void parseObject(JsonParser parser, FieldPath fieldPrefix, Map<List<String>, Object> settingsMap) {
+        for (JsonParser.Event event = parser.next(); event != JsonParser.Event.END_OBJECT; event = parser.next()) {
+            FieldPath field = fieldPrefix.child(parser.getString());
+            JsonParser.Event valueEvent = parser.next();
+            if (valueEvent == JsonParser.Event.START_OBJECT) {
+                parseObject(parser, field, settingsMap);
+            } else {
+                settingsMap.put(field, parseValue(parser, valueEvent));
+            }
+        }
+    }
+
+    private Object parseValue(JsonParser parser, JsonParser.Event event) {
+        switch (event) {
+            case VALUE_STRING:
+                return parser.getString();
+            case VALUE_NUMBER:
+                return parser.getBigDecimal();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case START_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                for (JsonParser.Event element = parser.next(); element != JsonParser.Event.END_ARRAY; element = parser.next()) {
+                    list.add(parseValue(parser, element));
+                }
+                return list;
+            }
+            case START_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (JsonParser.Event key = parser.next(); key != JsonParser.Event.END_OBJECT; key = parser.next()) {
+                    String name = parser.getString();
+                    map.put(name, parseValue(parser, parser.next()));
+                }
+                return map;
+            }
+            default:
+                throw new IllegalArgumentException("Unexpected json event: " + event);
+        }
+    }
+
+    private static final JsonSpecificationParser INSTANCE = new JsonSpecificationParser(Json.createParserFactory(Collections.emptyMap()));
+
+    /**
+     * Returns the parser instance.
+     *
+     * @return the parser
+     */
+    public static JsonSpecificationParser get() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,123 @@
+package io.codeleaf.config.maven;
+
+import io.codeleaf.config.binary.BinaryFileLoader;
+import io.codeleaf.config.binary.BinarySpecificationWriter;
+import io.codeleaf.config.json.JsonFileLoader;
+import io.codeleaf.config.properties.PropertiesFileLoader;
+import io.codeleaf.config.spec.Specification;
+import io.codeleaf.config.spec.SpecificationFormatException;
+import io.codeleaf.config.spec.SpecificationNotFoundException;
+import io.codeleaf.config.spec.spi.SpecificationLoader;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Compiles all json and properties specification files in a directory into binary specification files.
+ * <p>
+ * Every file is parsed with the same loader that is used at runtime, so a specification with an invalid format fails
+ * the build. The output directory receives a <code>&lt;name&gt;.spec.bin</code> file per specification, plus a
+ * manifest with the names of all specifications, which can be read by the {@link BinaryFileLoader}.
+ *
+ * @see BinaryFileLoader
+ * @see BinarySpecificationWriter
+ * @since 0.10.0
+ */
+@Mojo(name = "compile", defaultPhase = LifecyclePhase.PROCESS_RESOURCES, threadSafe = true)
+public class CompileSpecificationsMojo extends AbstractMojo {
+
+    private static final String JSON_EXTENSION = ".json";
+    private static final String PROPERTIES_EXTENSION = ".properties";
+
+    /**
+     * The directory containing the json and properties specification files.
+     */
+    @Parameter(defaultValue = "${project.basedir}/src/main/config", property = "config.sourceDirectory", required = true)
+    private File sourceDirectory;
+
+    /**
+     * The directory to write the compiled specifications and the manifest to.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/config", property = "config.outputDirectory", required = true)
+    private File outputDirectory;
+
+    /**
+     * Skips the compilation when <code>true</code>.
+     */
+    @Parameter(defaultValue = "false", property = "config.skip")
+    private boolean skip;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping specification compilation");
+            return;
+        }
+        if (!sourceDirectory.isDirectory()) {
+            getLog().info("No specification directory: " + sourceDirectory.getAbsolutePath());
+            return;
+        }
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new MojoExecutionException("Can't create output directory: " + outputDirectory.getAbsolutePath());
+        }
+        SpecificationLoader jsonLoader = JsonFileLoader.create(sourceDirectory);
+        SpecificationLoader propertiesLoader = PropertiesFileLoader.create(sourceDirectory);
+        BinarySpecificationWriter writer = new BinarySpecificationWriter();
+        Set<String> specificationNames = new TreeSet<>();
+        File[] files = sourceDirectory.listFiles();
+        Arrays.sort(files);
+        for (File file : files) {
+            String fileName = file.getName();
+            SpecificationLoader loader;
+            String specificationName;
+            if (fileName.endsWith(JSON_EXTENSION)) {
+                loader = jsonLoader;
+                specificationName = fileName.substring(0, fileName.length() - JSON_EXTENSION.length());
+            } else if (fileName.endsWith(PROPERTIES_EXTENSION)) {
+                loader = propertiesLoader;
+                specificationName = fileName.substring(0, fileName.length() - PROPERTIES_EXTENSION.length());
+            } else {
+                continue;
+            }
+            if (!specificationNames.add(specificationName)) {
+                throw new MojoFailureException("Duplicate specification: " + specificationName);
+            }
+            compile(loader, writer, specificationName, file);
+        }
+        writeManifest(specificationNames);
+        getLog().info("Compiled " + specificationNames.size() + " specifications to " + outputDirectory.getAbsolutePath());
+    }
+
+    private void compile(SpecificationLoader loader, BinarySpecificationWriter writer, String specificationName, File file) throws MojoExecutionException, MojoFailureException {
+        try {
+            Specification specification = loader.loadSpecification(specificationName);
+            writer.writeSpecification(specification, new File(outputDirectory, specificationName + BinaryFileLoader.FILE_EXTENSION));
+            getLog().debug("Compiled specification: " + file.getAbsolutePath());
+        } catch (SpecificationFormatException | IllegalArgumentException cause) {
+            throw new MojoFailureException("Invalid specification: " + file.getAbsolutePath(), cause);
+        } catch (SpecificationNotFoundException | IOException cause) {
+            throw new MojoExecutionException("Can't compile specification: " + file.getAbsolutePath(), cause);
+        }
+    }
+
+    private void writeManifest(Set<String> specificationNames) throws MojoExecutionException {
+        File manifest = new File(outputDirectory, BinaryFileLoader.MANIFEST_FILE_NAME);
+        try {
+            Files.write(manifest.toPath(), specificationNames, StandardCharsets.UTF_8);
+        } catch (IOException cause) {
+            throw new MojoExecutionException("Can't write manifest: " + manifest.getAbsolutePath(), cause);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides a maven plugin that compiles specification files at build time.
+ */
+package io.codeleaf.config.maven;
\ No newline at end of file
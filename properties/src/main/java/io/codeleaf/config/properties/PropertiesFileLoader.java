@@ -9,12 +9,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 import java.util.Properties;
 
 /**
  * Implements a specification loader for properties files.
+ * Each file is read with a single channel read, decoded with the configured charset (UTF-8 by default), and parsed
+ * in one pass by the {@link PropertiesSpecificationParser}.
+ * <p>
+ * The files are read with blocking I/O. This loader keeps the default
+ * {@link SpecificationLoader#loadSpecificationAsync(String, java.util.concurrent.Executor)}, which reads on the
+ * executor it is given.
  *
  * @author tvburger@gmail.com
  * @see SpecificationLoader
@@ -26,10 +38,12 @@ public final class PropertiesFileLoader implements SpecificationLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertiesFileLoader.class);
 
     private final File parentPath;
+    private final Charset charset;
     private final PropertiesSpecificationParser parser;
 
-    private PropertiesFileLoader(File parentPath, PropertiesSpecificationParser parser) {
+    private PropertiesFileLoader(File parentPath, Charset charset, PropertiesSpecificationParser parser) {
         this.parentPath = parentPath;
+        this.charset = charset;
         this.parser = parser;
     }
 
@@ -43,9 +57,7 @@ public final class PropertiesFileLoader implements SpecificationLoader {
             throw new SpecificationNotFoundException(specificationName);
         }
         try {
-            Properties properties = new Properties();
-            properties.load(new FileReader(getConfigurationFile(specificationName)));
-            return parser.parseSpecification(properties);
+            return parser.parseSpecification(readFile(getConfigurationFile(specificationName)));
         } catch (IllegalArgumentException cause) {
             LOGGER.debug("Specification loading error: " + cause.getMessage());
             throw new SpecificationFormatException(specificationName, cause);
@@ -60,6 +72,21 @@ public final class PropertiesFileLoader implements SpecificationLoader {
         return getConfigurationFile(specificationName).exists();
     }
 
+    private CharBuffer readFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + file.getAbsolutePath());
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full or the end of the file is reached
+            }
+            buffer.flip();
+            return charset.decode(buffer);
+        }
+    }
+
     private File getConfigurationFile(String specificationName) {
         File file = new File(parentPath.getPath(), specificationName + ".properties");
         LOGGER.debug("Considering properties file: " + file.getAbsolutePath());
@@ -74,7 +101,7 @@ public final class PropertiesFileLoader implements SpecificationLoader {
      * @see ConfigDirectory#getDefaultDir()
      */
     public PropertiesFileLoader() {
-        this(ConfigDirectory.getDefaultDir(), PARSER);
+        this(ConfigDirectory.getDefaultDir(), StandardCharsets.UTF_8, PARSER);
     }
 
     /**
@@ -85,7 +112,21 @@ public final class PropertiesFileLoader implements SpecificationLoader {
      * @throws IllegalArgumentException if the parentPath is not a directory
      */
     public static PropertiesFileLoader create(File parentPath) {
+        return create(parentPath, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new instance reading from the parentPath, decoding the files with the specified charset.
+     *
+     * @param parentPath the parent path to use for reading the properties files.
+     * @param charset    the charset of the properties files
+     * @return the new instance
+     * @throws IllegalArgumentException if the parentPath is not a directory
+     * @throws NullPointerException     if charset is <code>null</code>
+     */
+    public static PropertiesFileLoader create(File parentPath, Charset charset) {
         ConfigDirectory.requireAccessibleDirectory(parentPath);
-        return new PropertiesFileLoader(parentPath, PARSER);
+        Objects.requireNonNull(charset);
+        return new PropertiesFileLoader(parentPath, charset, PARSER);
     }
 }
@@ -1,5 +1,6 @@
 package io.codeleaf.config.properties;
 
+import io.codeleaf.config.spec.FieldPath;
 import io.codeleaf.config.spec.Specification;
 import io.codeleaf.config.spec.impl.MapSpecification;
 
@@ -7,6 +8,10 @@ import java.util.*;
 
 /**
  * Implements a parser that parses a specification out of a properties file.
+ * <p>
+ * Besides parsing from <code>Properties</code>, the parser can parse the text of a properties file directly, in a
+ * single pass that follows the escape, comment and line continuation rules of {@link Properties#load(java.io.Reader)}.
+ * Keys are split on <code>.</code> into field parts, and equal field parts within one file share the same string.
  *
  * @author tvburger@gmail.com
  * @see Properties
@@ -22,15 +27,194 @@ public final class PropertiesSpecificationParser {
      * @return the resulting specification
      */
     public Specification parseSpecification(Properties properties) {
+        Map<String, String> fieldParts = new HashMap<>();
         Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
         for (String stringPropertyName : properties.stringPropertyNames()) {
-            settingsMap.put(createField(stringPropertyName), properties.getProperty(stringPropertyName));
+            settingsMap.put(createField(stringPropertyName, fieldParts), properties.getProperty(stringPropertyName));
         }
-        return MapSpecification.create(settingsMap);
+        return MapSpecification.wrap(settingsMap);
     }
 
-    private List<String> createField(String stringPropertyName) {
-        return Arrays.asList(stringPropertyName.split("\\."));
+    /**
+     * Parses a specification from the text of a properties file. The settings keep the order of the file.
+     *
+     * @param text the text of the properties file
+     * @return the resulting specification
+     * @throws IllegalArgumentException if the text contains a malformed <code>\\uxxxx</code> escape
+     */
+    public Specification parseSpecification(CharSequence text) {
+        Map<String, String> fieldParts = new HashMap<>();
+        Map<List<String>, Object> settingsMap = new LinkedHashMap<>();
+        StringBuilder line = new StringBuilder();
+        int position = 0;
+        while ((position = readLine(text, position, line)) >= 0) {
+            parseLine(line, fieldParts, settingsMap);
+        }
+        return MapSpecification.wrap(settingsMap);
+    }
+
+    private int readLine(CharSequence text, int position, StringBuilder line) {
+        line.setLength(0);
+        boolean skipWhitespace = true;
+        boolean commentLine = false;
+        boolean continuation = false;
+        int backslashes = 0;
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (skipWhitespace) {
+                if (c == ' ' || c == '\t' || c == '\f') {
+                    continue;
+                }
+                if (!continuation && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhitespace = false;
+                continuation = false;
+                if (line.length() == 0 && (c == '#' || c == '!')) {
+                    commentLine = true;
+                }
+            }
+            if (c != '\n' && c != '\r') {
+                line.append(c);
+                backslashes = c == '\\' ? backslashes + 1 : 0;
+                continue;
+            }
+            boolean endOfText = position == text.length();
+            if (c == '\r' && !endOfText && text.charAt(position) == '\n') {
+                position++;
+            }
+            if (commentLine || line.length() == 0) {
+                commentLine = false;
+                skipWhitespace = true;
+                line.setLength(0);
+                backslashes = 0;
+                continue;
+            }
+            if (backslashes % 2 == 0) {
+                return position;
+            }
+            line.setLength(line.length() - 1);
+            if (endOfText) {
+                return position;
+            }
+            backslashes = 0;
+            skipWhitespace = true;
+            continuation = true;
+        }
+        if (commentLine || line.length() == 0) {
+            return -1;
+        }
+        if (backslashes % 2 == 1) {
+            line.setLength(line.length() - 1);
+        }
+        return position;
+    }
+
+    private void parseLine(CharSequence line, Map<String, String> fieldParts, Map<List<String>, Object> settingsMap) {
+        int keyLength = 0;
+        int valueStart = line.length();
+        boolean hasSeparator = false;
+        boolean precedingBackslash = false;
+        while (keyLength < line.length()) {
+            char c = line.charAt(keyLength);
+            if ((c == '=' || c == ':') && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                hasSeparator = true;
+                break;
+            } else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                break;
+            }
+            precedingBackslash = c == '\\' && !precedingBackslash;
+            keyLength++;
+        }
+        while (valueStart < line.length()) {
+            char c = line.charAt(valueStart);
+            if (c != ' ' && c != '\t' && c != '\f') {
+                if (!hasSeparator && (c == '=' || c == ':')) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+        String key = unescape(line, 0, keyLength);
+        String value = unescape(line, valueStart, line.length());
+        settingsMap.put(createField(key, fieldParts), value);
+    }
+
+    private String unescape(CharSequence line, int start, int end) {
+        StringBuilder builder = null;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != '\\') {
+                if (builder != null) {
+                    builder.append(c);
+                }
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(end - start).append(line, start, i);
+            }
+            if (++i == end) {
+                break;
+            }
+            c = line.charAt(i);
+            switch (c) {
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 >= end) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int unicode = 0;
+                    for (int j = 1; j <= 4; j++) {
+                        int digit = Character.digit(line.charAt(i + j), 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        unicode = (unicode << 4) | digit;
+                    }
+                    builder.append((char) unicode);
+                    i += 4;
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder == null ? line.subSequence(start, end).toString() : builder.toString();
+    }
+
+    private List<String> createField(String stringPropertyName, Map<String, String> fieldParts) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int end = stringPropertyName.indexOf('.'); end >= 0; end = stringPropertyName.indexOf('.', start)) {
+            parts.add(fieldPart(stringPropertyName.substring(start, end), fieldParts));
+            start = end + 1;
+        }
+        parts.add(fieldPart(stringPropertyName.substring(start), fieldParts));
+        if (!stringPropertyName.isEmpty()) {
+            while (!parts.isEmpty() && parts.get(parts.size() - 1).isEmpty()) {
+                parts.remove(parts.size() - 1);
+            }
+        }
+        return FieldPath.of(parts);
+    }
+
+    private String fieldPart(String part, Map<String, String> fieldParts) {
+        String shared = fieldParts.putIfAbsent(part, part);
+        return shared == null ? part : shared;
     }
 
 }
@@ -0,0 +1,78 @@
+package io.codeleaf.config.properties;
+
+import io.codeleaf.config.spec.Specification;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Verifies that parsing the text of a properties file gives the same settings as {@link Properties#load(java.io.Reader)}.
+ */
+public class PropertiesSpecificationParserTest {
+
+    private final PropertiesSpecificationParser parser = new PropertiesSpecificationParser();
+
+    @Test
+    public void testSettings() throws IOException {
+        assertSameAsProperties("a=1\nb.c=2\nb.d.e=3\n");
+        assertSameAsProperties("a\n=v\nb.=1\n.c=2\n");
+        assertSameAsProperties("");
+    }
+
+    @Test
+    public void testSeparators() throws IOException {
+        assertSameAsProperties("a:1\nb 2\nc = = 3\nd\t:\t4\ne\f5\nf==6\ng  :  \n");
+        assertSameAsProperties("a\\=b=c\na\\:b:c\na\\ b c\n");
+    }
+
+    @Test
+    public void testEscapes() throws IOException {
+        assertSameAsProperties("key\\ with\\ spaces=v\\tx\\n\\r\\f\\u0041\\\\\n");
+        assertSameAsProperties("a=\\q\\\"\\'\nb=\\u00e9\\u20AC\n\\u0063=d\n");
+        assertSameAsProperties("a=x\\\\\nb=y\\\\\\\\\n");
+    }
+
+    @Test
+    public void testLineEndings() throws IOException {
+        assertSameAsProperties("a=1\r\nb=2\r\n\r\nc=3");
+        assertSameAsProperties("a=1\rb=2\r\rc=3\r");
+        assertSameAsProperties("a=1\n\r\n  \t\nb=2\n");
+    }
+
+    @Test
+    public void testContinuations() throws IOException {
+        assertSameAsProperties("a=1\\\n   2\\\n\t3\nb=4\n");
+        assertSameAsProperties("a=1\\\r\n  2\\\r  3\r\nb=4\n");
+        assertSameAsProperties("a=1\\\n#2\nb=3\\\n!4\n");
+        assertSameAsProperties("a=1\\\n\nb=2\\\n   \nc=3\n");
+        assertSameAsProperties("a\\\n  b=1\na=2\\");
+        assertSameAsProperties("a=1\\\\\\\nb=2\n");
+    }
+
+    @Test
+    public void testComments() throws IOException {
+        assertSameAsProperties("# comment\n! comment\na=1\n  # indented\n");
+        assertSameAsProperties("# comment \\\na=1\n! comment \\\nb=2\n#\\\\\\\nc=3\n");
+        assertSameAsProperties("a=1 # not a comment\n#c=2\n!d=3");
+        assertSameAsProperties("# comment \\\r\na=1\r\n#\\");
+    }
+
+    private void assertSameAsProperties(String text) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(text));
+        Assert.assertEquals(text, toMap(parser.parseSpecification(properties)), toMap(parser.parseSpecification(text)));
+    }
+
+    private static Map<List<String>, Object> toMap(Specification specification) {
+        Map<List<String>, Object> settings = new HashMap<>();
+        specification.forEachSetting((field, value) -> settings.put(field, value));
+        return settings;
+    }
+
+}